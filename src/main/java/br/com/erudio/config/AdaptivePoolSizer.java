@@ -0,0 +1,155 @@
+package br.com.erudio.config;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import br.com.erudio.config.PoolTelemetry.PoolLoad;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Moves the maximum size of each pool between {@code minSize} and
+ * {@code maxSize} on every {@link #tick}, from what the borrows since the last
+ * tick cost. When callers waited for a connection longer than
+ * {@code waitRatio} times as long as they then held it, or timed out, the pool
+ * is too small for the load the database can take and grows, by a quarter or
+ * by the threads still waiting if that is more. When fewer than half its
+ * connections were busy on average for {@code shrinkAfter} ticks in a row, it
+ * gives one back. Hikari opens connections for a larger size on demand and
+ * retires those above {@code minimum-idle} once they idle out.
+ * <p>
+ * Every resize is counted in {@code person.pool.resize} and kept, along with
+ * the numbers behind it, in the {@code poolsizing} Actuator endpoint.
+ */
+@Endpoint(id = "poolsizing")
+public class AdaptivePoolSizer {
+
+    public static final String RESIZE_COUNTER = "person.pool.resize";
+
+    private static final int DECISIONS_KEPT = 50;
+
+    // Hikari counts usage in whole milliseconds; below that a wait cannot be told apart from noise
+    private static final long USAGE_FLOOR_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Logger logger = Logger.getLogger(AdaptivePoolSizer.class.getName());
+
+    private final List<HikariDataSource> pools;
+    private final PoolTelemetry telemetry;
+    private final MeterRegistry registry;
+    private final int minSize;
+    private final int maxSize;
+    private final double waitRatio;
+    private final int shrinkAfter;
+
+    private final Map<String, Integer> quietTicks = new HashMap<>();
+    private final Deque<Decision> decisions = new ArrayDeque<>();
+    private long lastTickNanos = System.nanoTime();
+
+    public AdaptivePoolSizer(List<HikariDataSource> pools, PoolTelemetry telemetry, MeterRegistry registry,
+            int minSize, int maxSize, double waitRatio, int shrinkAfter) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Pool size bounds must satisfy 1 <= min <= max");
+        }
+        this.pools = List.copyOf(pools);
+        this.telemetry = telemetry;
+        this.registry = registry;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.waitRatio = waitRatio;
+        this.shrinkAfter = shrinkAfter;
+    }
+
+    public synchronized void tick() {
+        long now = System.nanoTime();
+        long intervalNanos = Math.max(1, now - lastTickNanos);
+        lastTickNanos = now;
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean state = pool.getHikariPoolMXBean();
+            if (state != null) {
+                resize(pool, state, telemetry.drain(pool.getPoolName()), intervalNanos);
+            }
+        }
+    }
+
+    private void resize(HikariDataSource pool, HikariPoolMXBean state, PoolLoad load, long intervalNanos) {
+        String name = pool.getPoolName();
+        int size = pool.getMaximumPoolSize();
+        int pending = state.getThreadsAwaitingConnection();
+        long meanWait = load.meanAcquireNanos();
+        long meanUsage = load.meanUsageNanos();
+        double busy = (double) load.usageNanos() / intervalNanos;
+        boolean waited = load.acquires() > 0 && meanWait > waitRatio * Math.max(meanUsage, USAGE_FLOOR_NANOS);
+
+        if (load.timeouts() > 0 || waited) {
+            quietTicks.remove(name);
+            if (size < maxSize) {
+                int to = Math.min(maxSize, size + Math.max(1, Math.max(size / 4, pending)));
+                apply(pool, new Decision(Instant.now(), name, size, to,
+                        load.timeouts() > 0 ? "timeouts" : "waits", millis(meanWait), millis(meanUsage), busy, pending));
+            }
+        } else if (size > minSize && busy * 2 < size) {
+            int quiet = quietTicks.merge(name, 1, Integer::sum);
+            if (quiet >= shrinkAfter) {
+                quietTicks.remove(name);
+                apply(pool, new Decision(Instant.now(), name, size, size - 1, "idle", millis(meanWait),
+                        millis(meanUsage), busy, pending));
+            }
+        } else {
+            quietTicks.remove(name);
+        }
+    }
+
+    private void apply(HikariDataSource pool, Decision decision) {
+        pool.setMaximumPoolSize(decision.to());
+        if (pool.getMinimumIdle() > decision.to()) {
+            pool.setMinimumIdle(decision.to());
+        }
+        registry.counter(RESIZE_COUNTER, "pool", decision.pool(), "direction",
+                decision.to() > decision.from() ? "grow" : "shrink").increment();
+        if (decisions.size() == DECISIONS_KEPT) {
+            decisions.removeFirst();
+        }
+        decisions.addLast(decision);
+        logger.info("Resized pool " + decision.pool() + " from " + decision.from() + " to " + decision.to()
+                + " (" + decision.reason() + ")");
+    }
+
+    @ReadOperation
+    public synchronized Report report() {
+        List<PoolState> states = new ArrayList<>(pools.size());
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean state = pool.getHikariPoolMXBean();
+            states.add(state == null
+                    ? new PoolState(pool.getPoolName(), pool.getMaximumPoolSize(), 0, 0, 0)
+                    : new PoolState(pool.getPoolName(), pool.getMaximumPoolSize(), state.getActiveConnections(),
+                            state.getIdleConnections(), state.getThreadsAwaitingConnection()));
+        }
+        return new Report(minSize, maxSize, waitRatio, states, List.copyOf(decisions));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public record Decision(Instant at, String pool, int from, int to, String reason, double meanWaitMillis,
+            double meanUsageMillis, double busyConnections, int pendingThreads) {
+    }
+
+    public record PoolState(String pool, int maximumPoolSize, int active, int idle, int pending) {
+    }
+
+    public record Report(int minSize, int maxSize, double waitRatio, List<PoolState> pools, List<Decision> decisions) {
+    }
+}
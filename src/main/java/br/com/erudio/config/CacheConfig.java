@@ -0,0 +1,44 @@
+package br.com.erudio.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Ahead of the transaction advice, so an eviction runs once the write has committed;
+// evicting inside the transaction would let a concurrent read cache the old row again
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    
+    // Size, TTL and stats recording are set through spring.cache.caffeine.spec
+    public static final String PERSON_CACHE = "person";
+
+    /**
+     * A person cache miss runs its query inside the cache's map lock, which
+     * pins the carrier of a virtual thread for the whole round trip. In async
+     * mode the entry only holds a future while the query runs on a fresh
+     * virtual thread, and the caller parks on it without pinning.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    CacheManagerCustomizer<CaffeineCacheManager> virtualThreadCacheLoading(CacheProperties cacheProperties,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        String spec = cacheProperties.getCaffeine().getSpec();
+        return cacheManager -> {
+            cacheManager.setCaffeine((spec != null ? Caffeine.from(spec) : Caffeine.newBuilder()).executor(executor));
+            cacheManager.setAsyncCacheMode(true);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts {@link PoolTelemetry} on every Hikari pool, Boot's own or the ones
+ * behind the {@link ReadWriteRoutingDataSource}, before any of them starts;
+ * Boot then leaves their metrics alone. With
+ * {@code person.datasource.pool-sizing.enabled} the pools are also resized by
+ * an {@link AdaptivePoolSizer} every {@code interval}.
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+    @Bean
+    static PoolTelemetry poolTelemetry(ObjectProvider<MeterRegistry> registry) {
+        return new PoolTelemetry(registry);
+    }
+
+    @Bean
+    static BeanPostProcessor poolTelemetryInstaller(ObjectProvider<PoolTelemetry> telemetry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    pool.setMetricsTrackerFactory(telemetry.getObject());
+                } else if (bean instanceof ReadWriteRoutingDataSource routing) {
+                    routing.getPools().forEach(pool -> pool.setMetricsTrackerFactory(telemetry.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "person.datasource.pool-sizing.enabled", havingValue = "true")
+    static class PoolSizingConfig implements SchedulingConfigurer {
+
+        private final AdaptivePoolSizer sizer;
+        private final Duration interval;
+
+        PoolSizingConfig(DataSource dataSource, ObjectProvider<ReadWriteRoutingDataSource> routing,
+                PoolTelemetry telemetry, MeterRegistry registry,
+                @Value("${person.datasource.pool-sizing.min-size:4}") int minSize,
+                @Value("${person.datasource.pool-sizing.max-size:30}") int maxSize,
+                @Value("${person.datasource.pool-sizing.wait-ratio:0.5}") double waitRatio,
+                @Value("${person.datasource.pool-sizing.shrink-after:6}") int shrinkAfter,
+                @Value("${person.datasource.pool-sizing.interval:10s}") Duration interval) {
+            this.sizer = new AdaptivePoolSizer(pools(dataSource, routing.getIfAvailable()), telemetry, registry,
+                    minSize, maxSize, waitRatio, shrinkAfter);
+            this.interval = interval;
+        }
+
+        @Bean
+        AdaptivePoolSizer adaptivePoolSizer() {
+            return sizer;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar registrar) {
+            registrar.addFixedDelayTask(sizer::tick, interval);
+        }
+
+        private static List<HikariDataSource> pools(DataSource dataSource, ReadWriteRoutingDataSource routing) {
+            if (routing != null) {
+                return routing.getPools();
+            }
+            HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                    HikariDataSource.class);
+            return pool != null ? List.of(pool) : List.of();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.erudio.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import br.com.erudio.repositories.PersonRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every controller, service and repository call into one
+ * {@code person.layer} timer, tagged with the layer, class, method and the
+ * exception it ended with ({@code none} on success). Each timer also counts
+ * its calls, so failure rates come from the {@code exception} tag. The timing
+ * wraps the whole proxied call, cache and transaction included, and the
+ * histogram and percentiles are switched on through
+ * {@code management.metrics.distribution} like any other meter.
+ * <p>
+ * While a service call runs, its class and method are also kept for the
+ * thread, so {@link PoolTelemetry} can tag connection usage with the service
+ * method that held the connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LayerMetricsAspect {
+
+    public static final String TIMER = "person.layer";
+
+    private static final String NO_SERVICE = "none";
+
+    private static final ThreadLocal<String> SERVICE_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    // Registered once per tag combination, so a call only pays for a map lookup
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public LayerMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("within(br.com.erudio.controllers..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object timeController(ProceedingJoinPoint call) throws Throwable {
+        return time("controller", ClassUtils.getUserClass(call.getTarget()).getSimpleName(), call);
+    }
+
+    @Around("within(br.com.erudio.services..*) && @within(org.springframework.stereotype.Service)")
+    public Object timeService(ProceedingJoinPoint call) throws Throwable {
+        String type = ClassUtils.getUserClass(call.getTarget()).getSimpleName();
+        String outer = SERVICE_METHOD.get();
+        SERVICE_METHOD.set(type + "." + call.getSignature().getName());
+        try {
+            return time("service", type, call);
+        } finally {
+            if (outer == null) {
+                SERVICE_METHOD.remove();
+            } else {
+                SERVICE_METHOD.set(outer);
+            }
+        }
+    }
+
+    // The service method running on this thread, or "none" outside of one (startup,
+    // Flyway, a cache load handed to another thread)
+    public static String currentServiceMethod() {
+        String method = SERVICE_METHOD.get();
+        return method != null ? method : NO_SERVICE;
+    }
+
+    // The repository is a JDK proxy and half its methods are declared on Spring
+    // Data's interfaces, so it is matched and named by the interface instead
+    @Around("target(br.com.erudio.repositories.PersonRepository)")
+    public Object timeRepository(ProceedingJoinPoint call) throws Throwable {
+        return time("repository", PersonRepository.class.getSimpleName(), call);
+    }
+
+    private Object time(String layer, String type, ProceedingJoinPoint call) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return call.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timers.computeIfAbsent(
+                    new TimerKey(layer, type, call.getSignature().getName(), exception), this::register));
+        }
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(TIMER)
+                .tag("layer", key.layer())
+                .tag("class", key.type())
+                .tag("method", key.method())
+                .tag("exception", key.exception())
+                .register(registry);
+    }
+
+    private record TimerKey(String layer, String type, String method, String exception) {
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.erudio.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.repositories.PersonOutboxRepository;
+import br.com.erudio.services.FilePersonEventSink;
+import br.com.erudio.services.InMemoryPersonEventSink;
+import br.com.erudio.services.PersonEventSink;
+import br.com.erudio.services.PersonOutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * With {@code person.outbox.enabled} every change to a person also writes an
+ * event to the outbox; with {@code person.outbox.relay.enabled} a
+ * {@link PersonOutboxRelay} hands them to the {@link PersonEventSink} every
+ * {@code interval}. The sink is a local file or, for tests, memory, unless the
+ * context defines its own. The file sink has no default path and never
+ * rotates: each instance appends to its own file, so it suits a single node
+ * or local runs; a deployment of several defines a sink that ships the events
+ * to one place.
+ */
+@Configuration
+@ConditionalOnProperty(name = "person.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(PersonEventSink.class)
+    @ConditionalOnProperty(name = "person.outbox.sink", havingValue = "file", matchIfMissing = true)
+    FilePersonEventSink filePersonEventSink(ObjectMapper objectMapper,
+            @Value("${person.outbox.file}") Path file) {
+        return new FilePersonEventSink(file, objectMapper.getFactory());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(PersonEventSink.class)
+    @ConditionalOnProperty(name = "person.outbox.sink", havingValue = "memory")
+    InMemoryPersonEventSink inMemoryPersonEventSink() {
+        return new InMemoryPersonEventSink();
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "person.outbox.relay.enabled", havingValue = "true")
+    static class RelayConfig implements SchedulingConfigurer {
+
+        private final PersonOutboxRelay relay;
+        private final Duration interval;
+
+        RelayConfig(PersonOutboxRepository repository, PersonEventSink sink,
+                PlatformTransactionManager transactionManager, MeterRegistry registry,
+                @Value("${person.outbox.relay.batch-size:500}") int batchSize,
+                @Value("${person.outbox.relay.gap-timeout:10s}") Duration gapTimeout,
+                @Value("${person.outbox.relay.max-lag:30s}") Duration maxLag,
+                @Value("${person.outbox.relay.interval:1s}") Duration interval) {
+            this.relay = new PersonOutboxRelay(repository, sink, transactionManager, registry,
+                    batchSize, gapTimeout, maxLag);
+            this.interval = interval;
+        }
+
+        @Bean
+        PersonOutboxRelay personOutboxRelay() {
+            return relay;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar registrar) {
+            registrar.addFixedDelayTask(relay::tick, interval);
+        }
+    }
+}
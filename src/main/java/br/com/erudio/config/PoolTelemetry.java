@@ -0,0 +1,121 @@
+package br.com.erudio.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics tracker of every Hikari pool. It keeps Hikari's own
+ * {@code hikaricp.connections.*} meters (acquire time, usage time, pending
+ * threads, timeouts) and adds a {@code person.pool.usage} timer tagged with the
+ * pool and the service method that held the connection. Hikari calls the
+ * tracker on the thread that borrows and returns the connection, so the method
+ * comes straight from {@link LayerMetricsAspect}.
+ * <p>
+ * It also sums acquire and usage time per pool until {@link #drain} takes
+ * them, which is what {@link AdaptivePoolSizer} sizes the pools from.
+ */
+public class PoolTelemetry implements MetricsTrackerFactory {
+
+    public static final String USAGE_TIMER = "person.pool.usage";
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    // The registry is only looked up once a pool starts, well after the pools are built
+    public PoolTelemetry(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry meters = registry.getObject();
+        IMetricsTracker hikari = new MicrometerMetricsTrackerFactory(meters).create(poolName, poolStats);
+        Window window = windows.computeIfAbsent(poolName, name -> new Window());
+        // One usage timer per caller, registered on its first connection return
+        Map<String, Timer> usageByCaller = new ConcurrentHashMap<>();
+        return new IMetricsTracker() {
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                hikari.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                hikari.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+                window.acquires.increment();
+                window.acquireNanos.add(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                hikari.recordConnectionUsageMillis(elapsedBorrowedMillis);
+                window.usages.increment();
+                window.usageNanos.add(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+                usageByCaller.computeIfAbsent(LayerMetricsAspect.currentServiceMethod(),
+                        caller -> Timer.builder(USAGE_TIMER)
+                                .tag("pool", poolName)
+                                .tag("caller", caller)
+                                .register(meters))
+                        .record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                hikari.recordConnectionTimeout();
+                window.timeouts.increment();
+            }
+
+            @Override
+            public void close() {
+                hikari.close();
+            }
+        };
+    }
+
+    // What the pool went through since the last drain; all zero for a pool not started yet
+    public PoolLoad drain(String poolName) {
+        Window window = windows.get(poolName);
+        if (window == null) {
+            return new PoolLoad(0, 0, 0, 0, 0);
+        }
+        return new PoolLoad(window.acquires.sumThenReset(), window.acquireNanos.sumThenReset(),
+                window.usages.sumThenReset(), window.usageNanos.sumThenReset(), window.timeouts.sumThenReset());
+    }
+
+    /**
+     * Connection borrows of one pool over an interval. Hikari reports usage in
+     * whole milliseconds, so borrows shorter than that add nothing to
+     * {@code usageNanos}.
+     */
+    public record PoolLoad(long acquires, long acquireNanos, long usages, long usageNanos, long timeouts) {
+
+        public long meanAcquireNanos() {
+            return acquires == 0 ? 0 : acquireNanos / acquires;
+        }
+
+        public long meanUsageNanos() {
+            return usages == 0 ? 0 : usageNanos / usages;
+        }
+    }
+
+    private static final class Window {
+        private final LongAdder acquires = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAdder usages = new LongAdder();
+        private final LongAdder usageNanos = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Splits reads from writes once {@code person.datasource.replicas} lists at
+ * least one replica. The primary pool is built from {@code spring.datasource}
+ * as Boot would, each replica from its own url, username and password, and
+ * both honor {@code spring.datasource.hikari}; replica connections are also
+ * flagged read-only, so a write routed there by mistake fails instead of
+ * diverging. Without replicas Boot's single pool is left alone.
+ * <p>
+ * Hibernate reports each INSERT, UPDATE or DELETE it sends to the routing data
+ * source, which then opens its read-your-writes window once the transaction
+ * commits. Plain JDBC writes are not reported: the only ones, the outbox's,
+ * either share a transaction with a Hibernate write or are bookkeeping no
+ * request ever reads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "person.datasource.replicas[0].url")
+public class ReadReplicaConfig {
+
+    @Bean
+    ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties primaryProperties, Environment environment,
+            @Value("${person.datasource.read-your-writes:0s}") Duration readYourWrites) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(primaryProperties, binder, "primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<DataSourceProperties> replicaProperties = binder
+                .bind("person.datasource.replicas", Bindable.listOf(DataSourceProperties.class))
+                .get();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            HikariDataSource replica = pool(replicaProperties.get(i), binder, "replica-" + i);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, readYourWrites);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer writeReporter(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        StatementInspector inspector = sql -> {
+            if (isWrite(sql)) {
+                readWriteRoutingDataSource.markWrite();
+            }
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    // Skips the comment Hibernate puts in front with use_sql_comments
+    static boolean isWrite(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        if (sql.startsWith("/*", start)) {
+            int end = sql.indexOf("*/", start);
+            return end >= 0 && isWrite(sql.substring(end + 2));
+        }
+        return startsWithIgnoreCase(sql, start, "insert") || startsWithIgnoreCase(sql, start, "update")
+                || startsWithIgnoreCase(sql, start, "delete") || startsWithIgnoreCase(sql, start, "merge");
+    }
+
+    private static boolean startsWithIgnoreCase(String sql, int start, String keyword) {
+        return sql.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
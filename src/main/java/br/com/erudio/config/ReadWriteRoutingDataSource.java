@@ -0,0 +1,118 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends the statements of read-only transactions to the replicas, taking
+ * turns, and everything else to the primary. It must sit behind a
+ * {@link LazyConnectionDataSourceProxy}: the transaction manager asks for its
+ * connection before the read-only flag is bound to the thread, and the proxy
+ * only fetches the real one at the first statement.
+ * <p>
+ * Replicas lag the primary. For {@code readYourWrites} after a transaction
+ * that wrote commits, reads stay on the primary as well, so a person read
+ * right after a write, and cached from there, is not the old one. Writes are
+ * reported through {@link #markWrite}; transactions that roll back or never
+ * write leave the window alone. The window is kept for the whole node, not
+ * per client: any write pins every client's reads to the primary until it
+ * runs out.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final long readYourWritesNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile long lastWriteNanos;
+    // Bound while a transaction that wrote is open; a key of its own, so it never
+    // meets the connection holders bound under the data sources
+    private final Object writeMarker = new Object();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+            Duration readYourWrites) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        this.lastWriteNanos = System.nanoTime() - readYourWritesNanos;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (System.nanoTime() - lastWriteNanos < readYourWritesNanos) {
+            return PRIMARY;
+        }
+        return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * Reports a statement that changes rows. Inside a transaction the window
+     * starts once it commits, so a slow write still gets all of it; outside
+     * one the statement commits on its own and the window starts now.
+     */
+    public void markWrite() {
+        if (readYourWritesNanos <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastWriteNanos = System.nanoTime();
+            return;
+        }
+        // One synchronization per transaction, however many statements it sends
+        if (TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteNanos = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+            }
+        });
+    }
+
+    // The primary first, then the replicas in the order they were listed
+    public List<HikariDataSource> getPools() {
+        List<HikariDataSource> pools = new ArrayList<>(replicas.size() + 1);
+        pools.add(primary);
+        pools.addAll(replicas);
+        return pools;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
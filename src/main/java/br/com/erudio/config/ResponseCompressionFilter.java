@@ -0,0 +1,350 @@
+package br.com.erudio.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Compresses response bodies with zstd or gzip, whichever the client's
+ * {@code Accept-Encoding} ranks higher, zstd on a tie. The first
+ * {@code minResponseSize} bytes are held back: a body that ends before that,
+ * or whose content type is not one of {@code mimeTypes}, goes out as it is.
+ * Holding back also means a flush below the threshold sends nothing yet.
+ * <p>
+ * Tomcat's own compression stays off. It only knows gzip, would gzip a zstd
+ * body again, and skips responses with a strong ETag, which every person read
+ * has. A strong ETag must differ between content codings (RFC 9110, 8.8.3),
+ * so a compressed body gets the coding appended to it, {@code "4-zstd"} for
+ * {@code "4"}; {@link #stripCoding} turns such a tag handed back in
+ * {@code If-Match} or {@code If-None-Match} into the plain one again. Weak tags
+ * may be shared by the codings and pass unchanged. {@code Vary:
+ * Accept-Encoding} keeps shared caches from mixing up the encodings.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    static final String ZSTD = "zstd";
+    static final String GZIP = "gzip";
+
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final int zstdLevel;
+
+    public ResponseCompressionFilter(int minResponseSize, String[] mimeTypes, int zstdLevel) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = Arrays.stream(mimeTypes).map(MediaType::parseMediaType).toList();
+        this.zstdLevel = zstdLevel;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String coding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (coding == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CompressingResponse compressing = new CompressingResponse(response, coding,
+                request.getHeader(HttpHeaders.IF_NONE_MATCH));
+        try {
+            chain.doFilter(request, compressing);
+            compressing.finish();
+        } finally {
+            // The zstd context is native memory and the deflater's too, so neither may
+            // wait for the garbage collector when the chain throws
+            compressing.release();
+        }
+    }
+
+    // The strong tag of the coded body, "4" becoming "4-zstd"
+    static String codedETag(String eTag, String coding) {
+        if (eTag == null || eTag.startsWith("W/") || eTag.length() < 2 || !eTag.endsWith("\"")) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + "-" + coding + "\"";
+    }
+
+    /**
+     * The tag a coded body was sent with, turned back into the tag of the
+     * representation; any other tag is returned as it is.
+     */
+    public static String stripCoding(String eTag) {
+        for (String coding : new String[] { ZSTD, GZIP }) {
+            String suffix = "-" + coding + "\"";
+            if (eTag.endsWith(suffix) && !eTag.startsWith("W/")) {
+                return eTag.substring(0, eTag.length() - suffix.length()) + "\"";
+            }
+        }
+        return eTag;
+    }
+
+    // Null when the client takes neither coding; an unlisted coding gets the q of "*", if any
+    private static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double zstd = -1;
+        double gzip = -1;
+        double any = 0;
+        for (String range : acceptEncoding.split(",")) {
+            String[] parameters = range.split(";");
+            double q = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            switch (parameters[0].trim().toLowerCase(Locale.ROOT)) {
+                case ZSTD -> zstd = q;
+                case GZIP, "x-gzip" -> gzip = q;
+                case "*" -> any = q;
+                default -> { }
+            }
+        }
+        zstd = zstd < 0 ? any : zstd;
+        gzip = gzip < 0 ? any : gzip;
+        if (zstd > 0 && zstd >= gzip) {
+            return ZSTD;
+        }
+        return gzip > 0 ? GZIP : null;
+    }
+
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final String coding;
+        private final String ifNoneMatch;
+        private final byte[] held = new byte[minResponseSize];
+        private int heldCount;
+        private long declaredLength = -1;
+        private OutputStream target;
+        private boolean encoding;
+        private boolean finished;
+        private boolean released;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletResponse response, String coding, String ifNoneMatch) {
+            super(response);
+            this.coding = coding;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        // The length of the body as written is only known once it is decided what to write
+        @Override
+        public void setContentLength(int length) {
+            declaredLength = length;
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            declaredLength = length;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                declaredLength = value == null ? -1 : Long.parseLong(value);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                declaredLength = Long.parseLong(value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new HoldingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target != null) {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            heldCount = 0;
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            heldCount = 0;
+            declaredLength = -1;
+            super.reset();
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null && heldCount + length < held.length) {
+                System.arraycopy(bytes, offset, held, heldCount, length);
+                heldCount += length;
+                return;
+            }
+            if (target == null) {
+                start(compressible());
+            }
+            target.write(bytes, offset, length);
+        }
+
+        private boolean compressible() {
+            int status = getStatus();
+            if (status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status == SC_PARTIAL_CONTENT
+                    || getHeader(HttpHeaders.CONTENT_ENCODING) != null || getContentType() == null) {
+                return false;
+            }
+            MediaType contentType = MediaType.parseMediaType(getContentType());
+            return mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+        }
+
+        private void start(boolean compress) throws IOException {
+            ServletOutputStream raw = super.getOutputStream();
+            if (compress) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, coding);
+                String eTag = getHeader(HttpHeaders.ETAG);
+                if (eTag != null) {
+                    super.setHeader(HttpHeaders.ETAG, codedETag(eTag, coding));
+                }
+                target = coding.equals(ZSTD) ? new ZstdOutputStream(raw, zstdLevel) : new GZIPOutputStream(raw, true);
+                encoding = true;
+            } else {
+                if (declaredLength >= 0) {
+                    super.setContentLengthLong(declaredLength);
+                }
+                target = raw;
+            }
+            target.write(held, 0, heldCount);
+            heldCount = 0;
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (getStatus() == SC_NOT_MODIFIED) {
+                    confirmCodedETag();
+                }
+                // Whatever was held is the whole body, too small to be worth compressing
+                if (heldCount > 0) {
+                    super.setContentLength(heldCount);
+                    super.getOutputStream().write(held, 0, heldCount);
+                } else if (declaredLength >= 0) {
+                    super.setContentLengthLong(declaredLength);
+                }
+            } else if (encoding) {
+                released = true;
+                target.close();
+            }
+        }
+
+        // A 304 names the representation the client holds, which is the coded one
+        // when that is the tag it sent
+        private void confirmCodedETag() {
+            String eTag = getHeader(HttpHeaders.ETAG);
+            String coded = codedETag(eTag, coding);
+            if (ifNoneMatch != null && coded != null && !coded.equals(eTag)
+                    && Arrays.stream(ifNoneMatch.split(",")).map(String::trim).anyMatch(coded::equals)) {
+                super.setHeader(HttpHeaders.ETAG, coded);
+            }
+        }
+
+        void release() {
+            if (released || !encoding) {
+                return;
+            }
+            released = true;
+            try {
+                target.close();
+            } catch (IOException e) {
+                // The response already failed; only the encoder's memory mattered
+            }
+        }
+
+        private final class HoldingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                CompressingResponse.this.write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                flushBuffer();
+            }
+
+            @Override
+            public void close() throws IOException {
+                finish();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // Only blocking writes are compressed; like the stream of a request that is
+            // not async, this one refuses a listener as the servlet contract says
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                throw new IllegalStateException("Compressed responses are written blocking, not async");
+            }
+        }
+    }
+}
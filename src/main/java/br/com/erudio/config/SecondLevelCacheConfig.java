@@ -0,0 +1,63 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import br.com.erudio.model.Person;
+
+/**
+ * Regions of the Hibernate second-level and query cache, enabled by the
+ * {@code second-level-cache} profile. They live in a Caffeine JCache manager
+ * built here rather than from a config file, which the provider cannot read
+ * from inside the packaged jar. Person entities and query results are bounded
+ * and expire; the update timestamps are one entry per table and must never be
+ * evicted, or cached query results could outlive the rows they list.
+ */
+@Configuration
+@Profile("second-level-cache")
+public class SecondLevelCacheConfig {
+
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(
+            @Value("${person.second-level-cache.maximum-size:10000}") long maximumSize,
+            @Value("${person.second-level-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        cacheManager.createCache(Person.class.getName(), bounded(maximumSize, expireAfterWrite));
+        cacheManager.createCache(QUERY_RESULTS_REGION, bounded(maximumSize, expireAfterWrite));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheManager(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // A region nobody declared here is a mistake, not something to create unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+}
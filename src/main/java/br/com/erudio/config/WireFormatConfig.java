@@ -0,0 +1,43 @@
+package br.com.erudio.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * What goes on the wire besides plain JSON. The CBOR and Smile converters are
+ * built from Boot's Jackson builder, so they write the same fields as the JSON
+ * one, and Boot puts them where Spring MVC's own defaults for those formats
+ * would go. Response compression is {@link ResponseCompressionFilter}, with
+ * {@code person.compression.enabled}.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "person.compression.enabled", havingValue = "true")
+    ResponseCompressionFilter responseCompressionFilter(
+            @Value("${person.compression.min-response-size:2KB}") DataSize minResponseSize,
+            @Value("${person.compression.mime-types:application/json,application/*+json,application/x-ndjson}") String[] mimeTypes,
+            @Value("${person.compression.zstd-level:3}") int zstdLevel) {
+        return new ResponseCompressionFilter((int) minResponseSize.toBytes(), mimeTypes, zstdLevel);
+    }
+}
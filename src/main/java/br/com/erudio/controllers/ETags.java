@@ -0,0 +1,59 @@
+package br.com.erudio.controllers;
+
+import br.com.erudio.config.ResponseCompressionFilter;
+import br.com.erudio.exceptions.PreconditionFailedException;
+
+/**
+ * Entity tags for {@link PersonController}. A person's tag is its version
+ * column in quotes, a strong tag an {@code If-Match} header can be turned back
+ * into the number the service compares against. The list's tag is only a
+ * fingerprint of the table, so it goes out weak.
+ */
+final class ETags {
+
+	private ETags() {}
+
+	static String of(Object version) {
+		return "\"" + version + "\"";
+	}
+
+	static String weak(Object version) {
+		return "W/" + of(version);
+	}
+
+	// If-None-Match uses the weak comparison (RFC 9110, 13.1.2)
+	static boolean matches(String ifNoneMatch, String eTag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		String opaque = opaque(eTag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// A compressed body's tag carries its coding, which says nothing about the version
+	private static String opaque(String eTag) {
+		return ResponseCompressionFilter.stripCoding(eTag.startsWith("W/") ? eTag.substring(2) : eTag);
+	}
+
+	// If-Match uses the strong comparison, so weak or foreign tags can never match
+	static Long version(String ifMatch) {
+		if (ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ResponseCompressionFilter.stripCoding(ifMatch.trim());
+		if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			try {
+				return Long.valueOf(tag.substring(1, tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// falls through to the failed precondition
+			}
+		}
+		throw new PreconditionFailedException("If-Match does not match the current version!");
+	}
+}
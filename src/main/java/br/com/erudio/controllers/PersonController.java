@@ -1,62 +1,164 @@
 package br.com.erudio.controllers;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import br.com.erudio.exceptions.NotFoundResponses;
+import br.com.erudio.exceptions.ResourceNotFoundException;
 import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.model.PersonFilter;
+import br.com.erudio.model.PersonPage;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.model.PersonWriteStatus;
 import br.com.erudio.services.PersonServices;
+import br.com.erudio.services.PersonWriteBehind;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/person")
 public class PersonController {
 	
+	// Binary encodings of the same documents as the JSON, for service-to-service callers
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+	
+	// RFC 7240: a client that sends it takes a tracking id instead of the stored person
+	static final String PREFER = "Prefer";
+	static final String RESPOND_ASYNC = "respond-async";
+	
 	@Autowired
 	private PersonServices service;
 	
-	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-	public List<Person> findAll() {
-		return service.findAll();
+	@Autowired(required = false)
+	private PersonWriteBehind writeBehind;
+	
+	@GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> findAll(
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestParam(value = "after", required = false) String after,
+			PersonFilter filter) {
+		// Filtered lists are always paged, so a broad filter never loads the whole table;
+		// the next cursor they hand out comes back here without a limit
+		if (!filter.isEmpty()) {
+			return ResponseEntity.ok(service.findPage(filter, after, PersonServices.DEFAULT_PAGE_SIZE));
+		}
+		String eTag = ETags.weak(service.findCollectionVersion());
+		if (ETags.matches(ifNoneMatch, eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+		}
+		return ResponseEntity.ok().eTag(eTag).body(service.findAll());
+	}
+	
+	@GetMapping(params = "limit",
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public PersonPage findPage(@RequestParam(value = "limit") int limit,
+			@RequestParam(value = "after", required = false) String after,
+			PersonFilter filter) {
+		return service.findPage(filter, after, limit);
+	}
+	
+	@GetMapping(value = "/search",
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public List<Long> search(@RequestParam(value = "q") String query,
+			@RequestParam(value = "limit", defaultValue = "10") int limit) {
+		return service.search(query, limit);
+	}
+	
+	@GetMapping(value = "/export",
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void export(HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		service.exportAll(response.getOutputStream());
 	}
 	
 	@GetMapping(value = "/{id}",
-			produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Person> findById(@PathVariable(value = "id") Long id) {
-		try {
-			return ResponseEntity.ok(service.findById(id));
-		} catch (Exception e) {
-			return ResponseEntity.notFound().build();
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> findById(@PathVariable(value = "id") Long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		if (ifNoneMatch != null) {
+			String eTag = ETags.of(service.findVersion(id));
+			if (ETags.matches(ifNoneMatch, eTag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+			}
 		}
+		// Misses skip exception handling altogether and get the prerendered problem
+		PersonView person = service.lookup(id).orElse(null);
+		if (person == null) {
+			return NotFoundResponses.of("No records found for this ID!");
+		}
+		return ResponseEntity.ok().eTag(ETags.of(person.version())).body(person);
 	}
 	
-	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
-			produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Person> create(@RequestBody Person person) {
+	@PostMapping(consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> create(@RequestBody Person person,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
+		if (writeBehind != null && prefer != null && prefer.contains(RESPOND_ASYNC)) {
+			PersonWriteStatus status = writeBehind.submit(person);
+			URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/queued/{trackingId}")
+				.buildAndExpand(status.trackingId()).toUri();
+			return ResponseEntity.accepted().location(uri).header("Preference-Applied", RESPOND_ASYNC).body(status);
+		}
 		Person p1 = service.create(person);
 		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("{/id}").buildAndExpand(p1.getId()).toUri();
         return ResponseEntity.created(uri).body(p1);
 	}
 	
-	@PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
-			produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Person> update(@RequestBody Person person) {
-		try {
-			return ResponseEntity.ok(service.update(person));
-		} catch (Exception e) {
-			return ResponseEntity.notFound().build();
+	@GetMapping(value = "/queued/{trackingId}",
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public ResponseEntity<PersonWriteStatus> findQueued(@PathVariable(value = "trackingId") String trackingId) {
+		PersonWriteStatus status = writeBehind == null ? null : writeBehind.status(trackingId);
+		if (status == null) {
+			throw new ResourceNotFoundException("No queued create found for this tracking ID!");
+		}
+		if (status.personId() != null) {
+			URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/person/{id}")
+				.buildAndExpand(status.personId()).toUri();
+			return ResponseEntity.ok().location(uri).body(status);
 		}
+		return ResponseEntity.ok(status);
+	}
+	
+	@PostMapping(value = "/batch",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public PersonBatchResult createAll(@RequestBody List<Person> people) {
+		return service.createAll(people);
+	}
+	
+	@PutMapping(consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public ResponseEntity<Person> update(@RequestBody Person person,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		Person updatedPerson = service.update(person, ETags.version(ifMatch));
+		return ResponseEntity.ok().eTag(ETags.of(updatedPerson.getVersion())).body(updatedPerson);
+	}
+	
+	@PatchMapping(value = "/{id}",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> patch(@PathVariable(value = "id") Long id, @RequestBody Person person,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		service.patch(id, person, ETags.version(ifMatch));
+		return ResponseEntity.noContent().build();
 	}
 	
 	@DeleteMapping(value = "/{id}")
@@ -64,4 +166,17 @@ public class PersonController {
 		service.delete(id);
 		return ResponseEntity.noContent().build();
 	}
+	
+	@DeleteMapping(params = "ids")
+	public ResponseEntity<?> deleteAll(@RequestParam(value = "ids") List<Long> ids) {
+		service.deleteAll(ids);
+		return ResponseEntity.noContent().build();
+	}
+	
+	@PostMapping(value = "/purge",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> purge(@RequestBody List<Long> ids) {
+		service.deleteAll(ids);
+		return ResponseEntity.noContent().build();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package br.com.erudio.exceptions;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.ProblemDetailJacksonMixin;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * RFC 7807 {@code 404} responses, rendered once per message and served as they
+ * are from then on. Misses are by far the most frequent error and their
+ * messages are a handful of constants, so a miss costs a map lookup instead of
+ * building and serializing a new body.
+ */
+public final class NotFoundResponses {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.addMixIn(ProblemDetail.class, ProblemDetailJacksonMixin.class);
+
+	private static final Map<String, ResponseEntity<byte[]>> RESPONSES = new ConcurrentHashMap<>();
+
+	private NotFoundResponses() {
+	}
+
+	public static ResponseEntity<byte[]> of(String detail) {
+		return RESPONSES.computeIfAbsent(Objects.toString(detail, ""), NotFoundResponses::render);
+	}
+
+	private static ResponseEntity<byte[]> render(String detail) {
+		ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.NOT_FOUND);
+		if (!detail.isEmpty()) {
+			problem.setDetail(detail);
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.contentType(MediaType.APPLICATION_PROBLEM_JSON)
+					.body(MAPPER.writeValueAsBytes(problem));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
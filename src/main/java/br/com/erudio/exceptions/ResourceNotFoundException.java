@@ -3,12 +3,14 @@ package br.com.erudio.exceptions;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+// Misses are routine, from scanners as much as from stale links, and the trace
+// of one would only ever point at the same lookup, so none is captured
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException{
 	
 	private static final long serialVersionUID = 1L;
 	
 	public ResourceNotFoundException(String ex) {
-		super(ex);
+		super(ex, null, false, false);
 	}
 }
\ No newline at end of file
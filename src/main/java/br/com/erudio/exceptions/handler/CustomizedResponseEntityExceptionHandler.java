@@ -2,6 +2,7 @@ package br.com.erudio.exceptions.handler;
 
 import java.util.Date;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,8 +11,13 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import br.com.erudio.exceptions.BadRequestException;
+import br.com.erudio.exceptions.ConflictException;
 import br.com.erudio.exceptions.ExceptionResponse;
+import br.com.erudio.exceptions.NotFoundResponses;
+import br.com.erudio.exceptions.PreconditionFailedException;
 import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.exceptions.ServiceUnavailableException;
 
 @ControllerAdvice
 @RestController
@@ -30,7 +36,51 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 	}
 	
 	@ExceptionHandler(ResourceNotFoundException.class)
-	public final ResponseEntity<ExceptionResponse> handleNotFoundExceptions(
+	public final ResponseEntity<byte[]> handleNotFoundExceptions(
+			Exception ex, WebRequest request) {
+		
+		return NotFoundResponses.of(ex.getMessage());
+	}
+	
+	@ExceptionHandler(BadRequestException.class)
+	public final ResponseEntity<ExceptionResponse> handleBadRequestExceptions(
+			Exception ex, WebRequest request) {
+		
+		ExceptionResponse exceptionResponse = new ExceptionResponse(
+				new Date(),
+				ex.getMessage(),
+				request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+	}
+	
+	@ExceptionHandler(ConflictException.class)
+	public final ResponseEntity<ExceptionResponse> handleConflictExceptions(
+			Exception ex, WebRequest request) {
+		
+		ExceptionResponse exceptionResponse = new ExceptionResponse(
+				new Date(),
+				ex.getMessage(),
+				request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+	}
+	
+	@ExceptionHandler(PreconditionFailedException.class)
+	public final ResponseEntity<ExceptionResponse> handlePreconditionFailedExceptions(
+			Exception ex, WebRequest request) {
+		
+		ExceptionResponse exceptionResponse = new ExceptionResponse(
+				new Date(),
+				ex.getMessage(),
+				request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.PRECONDITION_FAILED);
+	}
+	
+	// Raised while overloaded for a moment, so the client is told to retry shortly
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public final ResponseEntity<ExceptionResponse> handleServiceUnavailableExceptions(
 			Exception ex, WebRequest request) {
 		
 		ExceptionResponse exceptionResponse = new ExceptionResponse(
@@ -38,7 +88,9 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 				ex.getMessage(),
 				request.getDescription(false));
 		
-		return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(exceptionResponse);
 	}
 
 }
@@ -2,38 +2,79 @@ package br.com.erudio.model;
 
 import java.io.Serializable;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "person")
+// Only used when the second-level-cache profile turns the cache on
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "person", uniqueConstraints = @UniqueConstraint(name = Person.EMAIL_CONSTRAINT, columnNames = "email"))
+@NamedQuery(name = "Person.findAllViews", query = "SELECT " + Person.VIEW + " FROM Person p ORDER BY p.id")
+@NamedQuery(name = "Person.streamAllViews", query = "SELECT " + Person.VIEW + " FROM Person p")
+@NamedQuery(name = "Person.findViewById", query = "SELECT " + Person.VIEW + " FROM Person p WHERE p.id = :id")
+@NamedQuery(name = "Person.findPageAfter", query = "SELECT " + Person.VIEW + " FROM Person p WHERE p.id > :after ORDER BY p.id LIMIT :limit")
+@NamedQuery(name = "Person.patch", query = "UPDATE Person p SET "
+		+ "p.firstName = COALESCE(:firstName, p.firstName), p.lastName = COALESCE(:lastName, p.lastName), "
+		+ "p.address = COALESCE(:address, p.address), p.gender = COALESCE(:gender, p.gender), "
+		+ "p.email = COALESCE(:email, p.email), p.version = p.version + 1 "
+		+ "WHERE p.id = :id AND (:version IS NULL OR p.version = :version)")
+@NamedQuery(name = "Person.findVersionById", query = "SELECT p.version FROM Person p WHERE p.id = :id")
+@NamedQuery(name = "Person.findCollectionVersion", query = "SELECT CONCAT(CAST(COUNT(p) AS String), '-', "
+		+ "CAST(COALESCE(MAX(p.id), 0) AS String), '-', CAST(COALESCE(SUM(p.id), 0) AS String), '-', "
+		+ "CAST(COALESCE(SUM(p.version), 0) AS String)) FROM Person p")
+@NamedQuery(name = "Person.purge", query = "DELETE FROM Person p WHERE p.id = :id")
+@NamedQuery(name = "Person.purgeAll", query = "DELETE FROM Person p WHERE p.id IN :ids")
 public class Person implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	public static final String EMAIL_CONSTRAINT = "uk_person_email";
+
+	// Column widths; longer values fail the insert of the whole batch they are in
+	public static final int NAME_LENGTH = 80;
+	public static final int ADDRESS_LENGTH = 100;
+	public static final int GENDER_LENGTH = 6;
+	public static final int EMAIL_LENGTH = 100;
+
+	public static final String VIEW = "new br.com.erudio.model.PersonView(p.id, p.firstName, p.lastName, p.address, p.gender, p.email, p.version)";
+
+	// Pooled allocation (a table on MySQL, which has no sequences) lets Hibernate batch inserts
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+	@SequenceGenerator(name = "person_seq", sequenceName = "person_seq", allocationSize = 50)
 	private Long id;
 	
-	@Column(name = "first_name", nullable = false, length = 80)
+	@Column(name = "first_name", nullable = false, length = NAME_LENGTH)
 	private String firstName;
 
-	@Column(name = "last_name", nullable = false, length = 80)
+	@Column(name = "last_name", nullable = false, length = NAME_LENGTH)
 	private String lastName;
 	
-	@Column(nullable = false, length = 100)
+	@Column(nullable = false, length = ADDRESS_LENGTH)
 	private String address;
 	
-	@Column(nullable = false, length = 6)
+	@Column(nullable = false, length = GENDER_LENGTH)
 	private String gender;
 	
-    @Column(nullable = false, length = 100)
+    @Column(nullable = false, length = EMAIL_LENGTH)
     private String email;
 
+    // Bumped on every update and served as the strong ETag of the person
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Person() {}
 
     public Person(String firstName, String lastName, String email, String address, String gender) {
@@ -101,6 +142,14 @@ public class Person implements Serializable {
         this.email = email;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
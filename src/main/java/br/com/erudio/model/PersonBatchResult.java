@@ -0,0 +1,71 @@
+package br.com.erudio.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Outcome of a bulk create. There is one {@link Item} per submitted person,
+ * in request order, so clients can match rejections back to their input.
+ */
+public class PersonBatchResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int created;
+	private int rejected;
+	private Item[] items;
+
+	public PersonBatchResult(int size) {
+		this.items = new Item[size];
+	}
+
+	public void created(int index, Long id) {
+		items[index] = new Item(index, id, null);
+		created++;
+	}
+
+	public void rejected(int index, String reason) {
+		items[index] = new Item(index, null, reason);
+		rejected++;
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public int getRejected() {
+		return rejected;
+	}
+
+	public List<Item> getItems() {
+		return Arrays.asList(items);
+	}
+
+	public static class Item implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private int index;
+		private Long id;
+		private String error;
+
+		public Item(int index, Long id, String error) {
+			this.index = index;
+			this.id = id;
+			this.error = error;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getError() {
+			return error;
+		}
+	}
+}
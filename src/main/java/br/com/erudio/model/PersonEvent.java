@@ -0,0 +1,16 @@
+package br.com.erudio.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One change to a person, as recorded in the outbox. {@code payload} is the
+ * person after the change as {@link PersonView} JSON, and {@code null} for a
+ * delete. {@code id} orders the events and is {@code null} until stored;
+ * since delivery is at least once, it is also what consumers deduplicate on.
+ */
+public record PersonEvent(Long id, Type type, Long personId, String payload, Instant createdAt)
+		implements Serializable {
+
+	public enum Type { CREATED, UPDATED, DELETED }
+}
@@ -0,0 +1,31 @@
+package br.com.erudio.model;
+
+/**
+ * Equality filters of {@code GET /person}, bound from the query string. Fields
+ * left out do not filter; {@code emailDomain} matches the part of the email
+ * after the {@code @}. The {@link #shape()} is the set of fields in use, which
+ * is all a query depends on besides its parameter values.
+ */
+public record PersonFilter(String firstName, String lastName, String gender, String emailDomain) {
+
+	public static final int FIRST_NAME = 1;
+	public static final int LAST_NAME = 1 << 1;
+	public static final int GENDER = 1 << 2;
+	public static final int EMAIL_DOMAIN = 1 << 3;
+	public static final int SHAPES = 1 << 4;
+
+	public int shape() {
+		return (has(firstName) ? FIRST_NAME : 0)
+				| (has(lastName) ? LAST_NAME : 0)
+				| (has(gender) ? GENDER : 0)
+				| (has(emailDomain) ? EMAIL_DOMAIN : 0);
+	}
+
+	public boolean isEmpty() {
+		return shape() == 0;
+	}
+
+	private static boolean has(String value) {
+		return value != null && !value.isBlank();
+	}
+}
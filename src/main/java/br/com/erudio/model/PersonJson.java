@@ -0,0 +1,181 @@
+package br.com.erudio.model;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * Streaming Jackson serializers for {@link Person} and {@link PersonView} and
+ * a deserializer for {@link Person}, in place of the bean ones built by
+ * reflection. Field names are encoded once, fields are written straight from
+ * the getters and read straight into the setters, with no property table or
+ * buffering in between. Reading expects the fields in the order they are
+ * written and falls back to looking each one up by name.
+ * <p>
+ * The output is byte for byte what the bean mapping writes: the same fields in
+ * the same order, nulls included. Reading matches it too; tokens other than
+ * the expected number or string go through the default deserializers, and
+ * unknown fields through the usual {@code FAIL_ON_UNKNOWN_PROPERTIES}
+ * handling. A property inclusion other than the default would not be honored
+ * here.
+ */
+@JsonComponent
+public class PersonJson {
+
+	private static final SerializableString ID = new SerializedString("id");
+	private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+	private static final SerializableString LAST_NAME = new SerializedString("lastName");
+	private static final SerializableString ADDRESS = new SerializedString("address");
+	private static final SerializableString GENDER = new SerializedString("gender");
+	private static final SerializableString EMAIL = new SerializedString("email");
+	private static final SerializableString VERSION = new SerializedString("version");
+
+	// In the order they are written
+	private static final SerializableString[] FIELDS = { ID, FIRST_NAME, LAST_NAME, ADDRESS, GENDER, EMAIL, VERSION };
+
+	public static class Serializer extends JsonSerializer<Person> {
+
+		@Override
+		public void serialize(Person person, JsonGenerator generator, SerializerProvider provider) throws IOException {
+			generator.writeStartObject(person);
+			write(generator, person.getId(), person.getFirstName(), person.getLastName(), person.getAddress(),
+					person.getGender(), person.getEmail(), person.getVersion());
+		}
+
+		@Override
+		public Class<Person> handledType() {
+			return Person.class;
+		}
+	}
+
+	public static class ViewSerializer extends JsonSerializer<PersonView> {
+
+		@Override
+		public void serialize(PersonView person, JsonGenerator generator, SerializerProvider provider) throws IOException {
+			generator.writeStartObject(person);
+			write(generator, person.id(), person.firstName(), person.lastName(), person.address(),
+					person.gender(), person.email(), person.version());
+		}
+
+		@Override
+		public Class<PersonView> handledType() {
+			return PersonView.class;
+		}
+	}
+
+	public static class Deserializer extends JsonDeserializer<Person> {
+
+		@Override
+		public Person deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			Person person = new Person();
+			String name;
+			if (parser.isExpectedStartObjectToken()) {
+				// Documents this class wrote list the fields in order, and matching the encoded
+				// names one by one skips the parser's symbol table lookup
+				int field = 0;
+				while (field < FIELDS.length && parser.nextFieldName(FIELDS[field])) {
+					parser.nextToken();
+					read(person, field++, parser, context);
+				}
+				if (field == FIELDS.length) {
+					name = parser.nextFieldName();
+				} else {
+					// The mismatch already moved on to the next field or the end of the object
+					name = parser.hasToken(JsonToken.FIELD_NAME) ? parser.currentName() : null;
+				}
+			} else if (parser.hasToken(JsonToken.FIELD_NAME)) {
+				name = parser.currentName();
+			} else {
+				return (Person) context.handleUnexpectedToken(Person.class, parser);
+			}
+			for (; name != null; name = parser.nextFieldName()) {
+				parser.nextToken();
+				int field = field(name);
+				if (field < 0) {
+					context.handleUnknownProperty(parser, this, person, name);
+				} else {
+					read(person, field, parser, context);
+				}
+			}
+			return person;
+		}
+
+		@Override
+		public Class<Person> handledType() {
+			return Person.class;
+		}
+
+		private static int field(String name) {
+			return switch (name) {
+				case "id" -> 0;
+				case "firstName" -> 1;
+				case "lastName" -> 2;
+				case "address" -> 3;
+				case "gender" -> 4;
+				case "email" -> 5;
+				case "version" -> 6;
+				default -> -1;
+			};
+		}
+
+		private static void read(Person person, int field, JsonParser parser, DeserializationContext context)
+				throws IOException {
+			JsonToken token = parser.currentToken();
+			switch (field) {
+				case 0 -> person.setId(token == JsonToken.VALUE_NULL ? null
+						: token == JsonToken.VALUE_NUMBER_INT ? Long.valueOf(parser.getLongValue())
+						: context.readValue(parser, Long.class));
+				case 1 -> person.setFirstName(string(parser, context));
+				case 2 -> person.setLastName(string(parser, context));
+				case 3 -> person.setAddress(string(parser, context));
+				case 4 -> person.setGender(string(parser, context));
+				case 5 -> person.setEmail(string(parser, context));
+				// A null version reads as 0, as it does into the primitive setter by default
+				default -> person.setVersion(token == JsonToken.VALUE_NULL ? 0
+						: token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue()
+						: context.readValue(parser, Long.TYPE));
+			}
+		}
+
+		private static String string(JsonParser parser, DeserializationContext context) throws IOException {
+			JsonToken token = parser.currentToken();
+			if (token == JsonToken.VALUE_STRING) {
+				return parser.getText();
+			}
+			return token == JsonToken.VALUE_NULL ? null : context.readValue(parser, String.class);
+		}
+	}
+
+	private static void write(JsonGenerator generator, Long id, String firstName, String lastName, String address,
+			String gender, String email, long version) throws IOException {
+		generator.writeFieldName(ID);
+		if (id == null) {
+			generator.writeNull();
+		} else {
+			generator.writeNumber(id.longValue());
+		}
+		generator.writeFieldName(FIRST_NAME);
+		generator.writeString(firstName);
+		generator.writeFieldName(LAST_NAME);
+		generator.writeString(lastName);
+		generator.writeFieldName(ADDRESS);
+		generator.writeString(address);
+		generator.writeFieldName(GENDER);
+		generator.writeString(gender);
+		generator.writeFieldName(EMAIL);
+		generator.writeString(email);
+		generator.writeFieldName(VERSION);
+		generator.writeNumber(version);
+		generator.writeEndObject();
+	}
+}
@@ -0,0 +1,32 @@
+package br.com.erudio.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One page of a keyset scan over {@link PersonView}, ordered by id.
+ * {@code next} is the opaque cursor to pass as {@code after} on the
+ * following request, or {@code null} when the scan is exhausted.
+ */
+public class PersonPage implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<PersonView> content;
+	private String next;
+
+	public PersonPage() {}
+
+	public PersonPage(List<PersonView> content, String next) {
+		this.content = content;
+		this.next = next;
+	}
+
+	public List<PersonView> getContent() {
+		return content;
+	}
+
+	public String getNext() {
+		return next;
+	}
+}
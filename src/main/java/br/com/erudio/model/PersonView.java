@@ -0,0 +1,19 @@
+package br.com.erudio.model;
+
+import java.io.Serializable;
+
+/**
+ * Read-only projection of {@link Person} for the list, page and lookup
+ * endpoints. It is built by JPQL constructor expressions, so Hibernate never
+ * registers it in the persistence context or keeps a dirty-check snapshot,
+ * and being immutable it is safe to share from the cache. Components follow
+ * the field order of {@link Person} so both serialize to the same JSON.
+ */
+public record PersonView(Long id, String firstName, String lastName, String address, String gender, String email,
+		long version) implements Serializable {
+
+	public static PersonView of(Person person) {
+		return new PersonView(person.getId(), person.getFirstName(), person.getLastName(),
+				person.getAddress(), person.getGender(), person.getEmail(), person.getVersion());
+	}
+}
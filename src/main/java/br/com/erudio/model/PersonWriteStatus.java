@@ -0,0 +1,17 @@
+package br.com.erudio.model;
+
+import java.io.Serializable;
+
+/**
+ * Where a create queued for write-behind stands. A queued person has no id
+ * yet; a created one has the id it was stored under, and a rejected or failed
+ * one the reason it was not stored.
+ */
+public record PersonWriteStatus(String trackingId, State state, Long personId, String reason) implements Serializable {
+
+	public enum State { QUEUED, CREATED, REJECTED, FAILED }
+
+	public static PersonWriteStatus queued(String trackingId) {
+		return new PersonWriteStatus(trackingId, State.QUEUED, null, null);
+	}
+}
@@ -0,0 +1,12 @@
+package br.com.erudio.repositories;
+
+import java.util.List;
+
+import br.com.erudio.model.PersonFilter;
+import br.com.erudio.model.PersonView;
+
+public interface PersonFilterRepository {
+
+    // Keyset page of the people matching every field set on the filter, ordered by id
+    List<PersonView> findFilteredPageAfter(PersonFilter filter, Long after, int limit);
+}
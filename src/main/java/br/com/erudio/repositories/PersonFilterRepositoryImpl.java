@@ -0,0 +1,82 @@
+package br.com.erudio.repositories;
+
+import java.util.List;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonFilter;
+import br.com.erudio.model.PersonView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Runs {@link PersonFilterRepository#findFilteredPageAfter} with one JPQL
+ * string per filter shape, all built up front. Values only ever travel as
+ * parameters, so every request of a shape sends the same text: Hibernate
+ * interprets it once into its query plan cache and the driver keeps one
+ * prepared statement for it per connection, instead of a fresh query for every
+ * combination of values.
+ */
+public class PersonFilterRepositoryImpl implements PersonFilterRepository {
+
+    private static final char ESCAPE = '!';
+
+    private static final String[] QUERIES = new String[PersonFilter.SHAPES];
+
+    static {
+        for (int shape = 0; shape < PersonFilter.SHAPES; shape++) {
+            StringBuilder query = new StringBuilder("SELECT ").append(Person.VIEW)
+                    .append(" FROM Person p WHERE p.id > :after");
+            if ((shape & PersonFilter.FIRST_NAME) != 0) {
+                query.append(" AND p.firstName = :firstName");
+            }
+            if ((shape & PersonFilter.LAST_NAME) != 0) {
+                query.append(" AND p.lastName = :lastName");
+            }
+            if ((shape & PersonFilter.GENDER) != 0) {
+                query.append(" AND p.gender = :gender");
+            }
+            if ((shape & PersonFilter.EMAIL_DOMAIN) != 0) {
+                query.append(" AND p.email LIKE :emailPattern ESCAPE '").append(ESCAPE).append('\'');
+            }
+            QUERIES[shape] = query.append(" ORDER BY p.id LIMIT :limit").toString();
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PersonView> findFilteredPageAfter(PersonFilter filter, Long after, int limit) {
+        int shape = filter.shape();
+        TypedQuery<PersonView> query = entityManager.createQuery(QUERIES[shape], PersonView.class)
+                .setParameter("after", after)
+                .setParameter("limit", limit);
+        if ((shape & PersonFilter.FIRST_NAME) != 0) {
+            query.setParameter("firstName", filter.firstName());
+        }
+        if ((shape & PersonFilter.LAST_NAME) != 0) {
+            query.setParameter("lastName", filter.lastName());
+        }
+        if ((shape & PersonFilter.GENDER) != 0) {
+            query.setParameter("gender", filter.gender());
+        }
+        if ((shape & PersonFilter.EMAIL_DOMAIN) != 0) {
+            query.setParameter("emailPattern", "%@" + escape(filter.emailDomain()));
+        }
+        return query.getResultList();
+    }
+
+    // Not a backslash: MySQL would read it as the start of an escape in the literal
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.erudio.repositories;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import br.com.erudio.model.PersonEvent;
+
+/**
+ * Plain JDBC over the {@code person_outbox} tables. The outbox ids come from
+ * AUTO_INCREMENT, which would keep Hibernate from batching the inserts, so the
+ * events are written here as one JDBC batch instead. The template joins the
+ * transaction of the caller, which is what keeps an event and its change
+ * together.
+ */
+@Repository
+public class PersonOutboxRepository {
+
+    private static final int INSERT_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PersonOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(List<PersonEvent> events) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO person_outbox (type, person_id, payload, created_at) VALUES (?, ?, ?, ?)",
+                events, INSERT_BATCH, (statement, event) -> {
+                    statement.setString(1, event.type().name());
+                    statement.setLong(2, event.personId());
+                    statement.setString(3, event.payload());
+                    statement.setTimestamp(4, Timestamp.from(event.createdAt()));
+                });
+    }
+
+    // Held until the caller's transaction ends
+    public long lockCursor(String relay) {
+        return jdbcTemplate.queryForObject("SELECT last_id FROM person_outbox_cursor WHERE relay = ? FOR UPDATE",
+                Long.class, relay);
+    }
+
+    public void moveCursor(String relay, long lastId) {
+        jdbcTemplate.update("UPDATE person_outbox_cursor SET last_id = ? WHERE relay = ?", lastId, relay);
+    }
+
+    public long findCursor(String relay) {
+        return jdbcTemplate.queryForObject("SELECT last_id FROM person_outbox_cursor WHERE relay = ?",
+                Long.class, relay);
+    }
+
+    // A range scan of the primary key, in the order the events were written
+    public List<PersonEvent> findAfter(long after, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, type, person_id, payload, created_at FROM person_outbox WHERE id > ? ORDER BY id LIMIT ?",
+                PersonOutboxRepository::event, after, limit);
+    }
+
+    public Optional<PersonEvent> findFirstAfter(long after) {
+        return findAfter(after, 1).stream().findFirst();
+    }
+
+    public long findMinId() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MIN(id), 0) FROM person_outbox", Long.class);
+    }
+
+    public long findMaxId() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM person_outbox", Long.class);
+    }
+
+    // Deletes (after, upTo]; callers keep each range small so no statement locks for long
+    public int deleteRange(long after, long upTo) {
+        return jdbcTemplate.update("DELETE FROM person_outbox WHERE id > ? AND id <= ?", after, upTo);
+    }
+
+    private static PersonEvent event(ResultSet row, int rowNum) throws SQLException {
+        return new PersonEvent(row.getLong("id"), PersonEvent.Type.valueOf(row.getString("type")),
+                row.getLong("person_id"), row.getString("payload"), row.getTimestamp("created_at").toInstant());
+    }
+}
@@ -1,26 +1,112 @@
 package br.com.erudio.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends JpaRepository<Person, Long>, PersonFilterRepository {
 
+    // The lookups marked cacheable hit the query cache when the second-level-cache profile
+    // is on; the hint is ignored otherwise
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Person> findByEmail(String email);
 
+    boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.email FROM Person p")
+    Stream<String> streamAllEmails();
+
+    @Query("SELECT p.email FROM Person p WHERE p.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // The view queries are named queries on Person: Spring Data does not re-parse
+    // those on every call, and their constructor expressions skip entity hydration
+    List<PersonView> findAllViews();
+
+    // Read-only so that callers outside a transaction, like the cache loader, are routed
+    // to a replica; inside a caller's read-write transaction they simply join it
+    @Transactional(readOnly = true)
+    Optional<PersonView> findViewById(@Param("id") Long id);
+
+    // Unordered scan for the in-memory indexes; must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false") })
+    Stream<PersonView> streamAllViews();
+
+    List<PersonView> findPageAfter(@Param("after") Long after, @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // count-maxId-sumOfIds-sumOfVersions: a fingerprint of the table that every single insert,
+    // update or delete changes, without reading the rows; a mix of them can still collide
+    String findCollectionVersion();
+
+    // Person.patch: null arguments keep the current column value, a null version skips the
+    // optimistic check; returns the affected row count
+    @Modifying
+    @Transactional
+    int patch(@Param("id") Long id, @Param("firstName") String firstName, @Param("lastName") String lastName,
+            @Param("address") String address, @Param("gender") String gender, @Param("email") String email,
+            @Param("version") Long version);
+
+    // Person.purge / Person.purgeAll: delete without loading the entities; return the affected row count
+    @Modifying
+    @Transactional
+    int purge(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    int purgeAll(@Param("ids") Collection<Long> ids);
+
+    // Holds the rows of the ids still there until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Person p WHERE p.id IN :ids")
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursor; must be consumed inside a transaction and closed by the caller
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false") })
+    @Query("SELECT p FROM Person p ORDER BY p.id")
+    Stream<Person> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Person p WHERE p.firstName = ?1 AND p.lastName = ?2")
     Person findByJPQL(String firstName, String lastName);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Person p WHERE p.firstName =:firstName AND p.lastName =:lastName")
     Person findByJPQLNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
+    // Native results are only invalidated through the tables they declare
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "person") })
     @Query(value = "SELECT * FROM person p WHERE p.first_name = ?1 AND p.last_name = ?2", nativeQuery = true)
     Person findByNativeSQL(String firstName, String lastName);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "person") })
     @Query(value = "SELECT * FROM person p WHERE p.first_name =:firstName AND p.last_name =:lastName", nativeQuery = true)
     Person findByNativeSQLWithNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
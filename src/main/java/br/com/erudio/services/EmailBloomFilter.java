@@ -0,0 +1,103 @@
+package br.com.erudio.services;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.erudio.repositories.PersonRepository;
+
+/**
+ * In-memory Bloom filter over the registered emails. A negative answer means
+ * the email is certainly new, so {@link PersonServices#create} can go straight
+ * to the insert; a positive answer may be a false positive and only costs the
+ * existence lookup. The unique index stays the source of truth, so emails
+ * inserted by other nodes are still caught at insert time.
+ * <p>
+ * Until the startup scan finishes every email is reported as possibly known.
+ */
+@Component
+@ConditionalOnProperty(name = "person.email-filter.enabled", havingValue = "true")
+public class EmailBloomFilter {
+
+	private Logger logger = Logger.getLogger(EmailBloomFilter.class.getName());
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+	private volatile boolean loaded;
+
+	@Autowired
+	PersonRepository repository;
+
+	public EmailBloomFilter(
+			@Value("${person.email-filter.expected-insertions:1000000}") long expectedInsertions,
+			@Value("${person.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+		long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+		this.bits = new AtomicLongArray((int) (bitCount / 64));
+	}
+
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+
+		logger.info("Loading the email filter!");
+
+		try (Stream<String> emails = repository.streamAllEmails()) {
+			emails.forEach(this::add);
+		}
+		loaded = true;
+	}
+
+	public boolean mightContain(String email) {
+		if (!loaded) {
+			return true;
+		}
+		long hash = hash(email);
+		long h1 = hash;
+		long h2 = Long.rotateLeft(hash, 32) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void add(String email) {
+		long hash = hash(email);
+		long h1 = hash;
+		long h2 = Long.rotateLeft(hash, 32) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			int index = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long word;
+			while (((word = bits.get(index)) & mask) == 0 && !bits.compareAndSet(index, word, word | mask)) {
+				// retry until the bit is set by us or by a concurrent add
+			}
+		}
+	}
+
+	// 64-bit FNV-1a over the lower-cased email, matching the column's case-insensitive collation
+	private static long hash(String email) {
+		String key = email.toLowerCase(Locale.ROOT);
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash ^ (hash >>> 29);
+	}
+}
@@ -0,0 +1,67 @@
+package br.com.erudio.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import br.com.erudio.model.PersonEvent;
+
+/**
+ * Appends each event to a local file as one line of JSON, with the stored
+ * payload under {@code person}. The file is forced to disk before a batch
+ * counts as delivered, so a crash can repeat the tail of the file but never
+ * lose it.
+ */
+public class FilePersonEventSink implements PersonEventSink {
+
+	private final Path file;
+	private final JsonFactory jsonFactory;
+
+	public FilePersonEventSink(Path file, JsonFactory jsonFactory) {
+		this.file = file;
+		this.jsonFactory = jsonFactory;
+	}
+
+	@Override
+	public synchronized void deliver(List<PersonEvent> events) throws IOException {
+		ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+		try (JsonGenerator generator = jsonFactory.createGenerator(lines)) {
+			generator.setRootValueSeparator(null);
+			for (PersonEvent event : events) {
+				generator.writeStartObject();
+				generator.writeNumberField("id", event.id());
+				generator.writeStringField("type", event.type().name());
+				generator.writeNumberField("personId", event.personId());
+				generator.writeStringField("createdAt", event.createdAt().toString());
+				generator.writeFieldName("person");
+				if (event.payload() == null) {
+					generator.writeNull();
+				} else {
+					generator.writeRawValue(event.payload());
+				}
+				generator.writeEndObject();
+				generator.writeRaw('\n');
+			}
+		}
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND)) {
+			ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		}
+	}
+}
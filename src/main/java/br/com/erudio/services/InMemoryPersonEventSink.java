@@ -0,0 +1,28 @@
+package br.com.erudio.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.erudio.model.PersonEvent;
+
+/**
+ * Keeps every delivered event in memory, for tests and local runs. Nothing
+ * bounds it, so it has no place in a long-running deployment.
+ */
+public class InMemoryPersonEventSink implements PersonEventSink {
+
+	private final List<PersonEvent> events = new ArrayList<>();
+
+	@Override
+	public synchronized void deliver(List<PersonEvent> batch) {
+		events.addAll(batch);
+	}
+
+	public synchronized List<PersonEvent> events() {
+		return List.copyOf(events);
+	}
+
+	public synchronized void clear() {
+		events.clear();
+	}
+}
@@ -0,0 +1,30 @@
+package br.com.erudio.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import br.com.erudio.exceptions.BadRequestException;
+
+/**
+ * Encodes the last seen id of a keyset page as an opaque, URL-safe token so
+ * clients never build cursors themselves.
+ */
+final class PageCursor {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private PageCursor() {}
+
+	static String encode(Long id) {
+		return ENCODER.encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+	}
+
+	static Long decode(String cursor) {
+		try {
+			return Long.valueOf(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid page cursor!");
+		}
+	}
+}
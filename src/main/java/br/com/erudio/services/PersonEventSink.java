@@ -0,0 +1,16 @@
+package br.com.erudio.services;
+
+import java.util.List;
+
+import br.com.erudio.model.PersonEvent;
+
+/**
+ * Where the {@link PersonOutboxRelay} hands the outbox events, in id order.
+ * A batch counts as delivered once this returns; throwing leaves the whole
+ * batch in the outbox to be handed over again, so an implementation may see
+ * an event more than once and must be done with it before returning.
+ */
+public interface PersonEventSink {
+
+	void deliver(List<PersonEvent> events) throws Exception;
+}
@@ -0,0 +1,76 @@
+package br.com.erudio.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonEvent;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonOutboxRepository;
+
+/**
+ * Records the changes {@link PersonServices} makes as {@link PersonEvent}s in
+ * the outbox. Every method requires the transaction of the change, so an event
+ * is committed exactly when its change is, and rolled back with it; the
+ * {@link PersonOutboxRelay} delivers them from there.
+ */
+@Component
+@ConditionalOnProperty(name = "person.outbox.enabled", havingValue = "true")
+public class PersonOutbox {
+
+	@Autowired
+	PersonOutboxRepository repository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void created(Collection<Person> people) {
+		if (people.isEmpty()) {
+			return;
+		}
+		Instant now = Instant.now();
+		List<PersonEvent> events = new ArrayList<>(people.size());
+		for (Person person : people) {
+			events.add(event(PersonEvent.Type.CREATED, PersonView.of(person), now));
+		}
+		repository.append(events);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void updated(PersonView person) {
+		repository.append(List.of(event(PersonEvent.Type.UPDATED, person, Instant.now())));
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void deleted(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		Instant now = Instant.now();
+		List<PersonEvent> events = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			events.add(new PersonEvent(null, PersonEvent.Type.DELETED, id, null, now));
+		}
+		repository.append(events);
+	}
+
+	private PersonEvent event(PersonEvent.Type type, PersonView person, Instant now) {
+		try {
+			return new PersonEvent(null, type, person.id(), objectMapper.writeValueAsString(person), now);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not write the event of person " + person.id(), e);
+		}
+	}
+}
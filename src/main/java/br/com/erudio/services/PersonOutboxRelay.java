@@ -0,0 +1,183 @@
+package br.com.erudio.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.erudio.model.PersonEvent;
+import br.com.erudio.repositories.PersonOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Moves outbox events to a {@link PersonEventSink}. Each {@link #tick} reads
+ * up to {@code batchSize} events past the relay's cursor, walking the primary
+ * key in order, hands them to the sink and moves the cursor past them, all in
+ * one transaction that holds the cursor row's lock; it repeats while batches
+ * come back full, so a backlog is worked off within the tick. Delivery is at
+ * least once: a sink that fails, or a commit that fails after the sink took
+ * the batch, leaves the cursor where it was and the batch is handed over again
+ * on the next tick.
+ * <p>
+ * AUTO_INCREMENT hands out ids when the insert runs, not when it commits, so an
+ * event can become visible behind one with a higher id. The relay never moves
+ * the cursor over a missing id until it has stayed missing for
+ * {@code gapTimeout}, which should outlast the longest write transaction;
+ * only then is it taken for a rolled back insert and skipped. This assumes
+ * {@code auto_increment_increment} is 1.
+ * <p>
+ * A tick that finds nothing past the cursor ends there, without locking it.
+ * Delivered events are deleted after each tick, a range of ids at a time.
+ * {@code person.outbox.lag} is the age of the oldest event not yet delivered
+ * and {@code person.outbox.backlog} how many ids it trails the newest by; a
+ * warning is logged whenever the lag goes past {@code maxLag}.
+ */
+public class PersonOutboxRelay {
+
+	public static final String RELAY = "default";
+
+	private static final int CLEANUP_CHUNK = 1000;
+
+	private Logger logger = Logger.getLogger(PersonOutboxRelay.class.getName());
+
+	private final PersonOutboxRepository repository;
+	private final PersonEventSink sink;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final Duration gapTimeout;
+	private final Duration maxLag;
+
+	private final Counter delivered;
+	private final Counter failures;
+	private final AtomicLong lagMillis = new AtomicLong();
+	private final AtomicLong backlog = new AtomicLong();
+
+	// The first missing id the cursor is waiting on, and since when
+	private long gapAt = -1;
+	private long gapSince;
+	private long purgedUpTo = -1;
+	private boolean lagging;
+
+	public PersonOutboxRelay(PersonOutboxRepository repository, PersonEventSink sink,
+			PlatformTransactionManager transactionManager, MeterRegistry registry,
+			int batchSize, Duration gapTimeout, Duration maxLag) {
+		this.repository = repository;
+		this.sink = sink;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.gapTimeout = gapTimeout;
+		this.maxLag = maxLag;
+		this.delivered = Counter.builder("person.outbox.delivered")
+			.description("Events handed to the sink").register(registry);
+		this.failures = Counter.builder("person.outbox.failures")
+			.description("Batches the sink or the cursor update failed").register(registry);
+		TimeGauge.builder("person.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+			.description("Age of the oldest event not yet delivered").register(registry);
+		Gauge.builder("person.outbox.backlog", backlog, AtomicLong::doubleValue)
+			.description("Ids between the cursor and the newest event").register(registry);
+	}
+
+	public synchronized void tick() {
+		try {
+			while (relayBatch() == batchSize) {
+				// A full batch means more may be waiting
+			}
+		} catch (RuntimeException e) {
+			failures.increment();
+			logger.log(Level.WARNING, "Relaying person events failed, retrying on the next tick", e);
+		}
+		long cursor = repository.findCursor(RELAY);
+		measureLag(cursor);
+		cleanUp(cursor);
+	}
+
+	private int relayBatch() {
+		// Looked at outside a transaction first, so an idle tick takes no lock and
+		// opens no read-write transaction
+		if (repository.findFirstAfter(repository.findCursor(RELAY)).isEmpty()) {
+			return 0;
+		}
+		Integer count = transactionTemplate.execute(status -> {
+			long cursor = repository.lockCursor(RELAY);
+			List<PersonEvent> events = deliverable(cursor, repository.findAfter(cursor, batchSize));
+			if (events.isEmpty()) {
+				return 0;
+			}
+			try {
+				sink.deliver(events);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException("The sink refused " + events.size() + " person events", e);
+			}
+			repository.moveCursor(RELAY, events.get(events.size() - 1).id());
+			return events.size();
+		});
+		delivered.increment(count);
+		return count;
+	}
+
+	// The events up to the first missing id, unless that one has been missing for gapTimeout
+	private List<PersonEvent> deliverable(long cursor, List<PersonEvent> events) {
+		List<PersonEvent> deliverable = new ArrayList<>(events.size());
+		long expected = cursor + 1;
+		for (PersonEvent event : events) {
+			if (event.id() != expected && !gapExpired(expected, event.id())) {
+				break;
+			}
+			deliverable.add(event);
+			expected = event.id() + 1;
+		}
+		return deliverable;
+	}
+
+	private boolean gapExpired(long missing, long next) {
+		long now = System.nanoTime();
+		if (gapAt != missing) {
+			gapAt = missing;
+			gapSince = now;
+		}
+		if (now - gapSince < gapTimeout.toNanos()) {
+			return false;
+		}
+		logger.info("Skipping person event ids " + missing + " to " + (next - 1) + ", never committed");
+		gapAt = -1;
+		return true;
+	}
+
+	private void measureLag(long cursor) {
+		long lag = repository.findFirstAfter(cursor)
+			.map(event -> Math.max(0, Duration.between(event.createdAt(), Instant.now()).toMillis()))
+			.orElse(0L);
+		lagMillis.set(lag);
+		backlog.set(Math.max(0, repository.findMaxId() - cursor));
+		boolean over = lag > maxLag.toMillis();
+		if (over && !lagging) {
+			logger.warning("Person events are " + lag + " ms behind, above the " + maxLag.toMillis() + " ms bound");
+		}
+		lagging = over;
+	}
+
+	private void cleanUp(long cursor) {
+		if (purgedUpTo < 0) {
+			// An empty outbox has nothing below the cursor to delete
+			long minId = repository.findMinId();
+			purgedUpTo = minId == 0 ? cursor : Math.min(minId - 1, cursor);
+		}
+		while (purgedUpTo < cursor) {
+			long upTo = Math.min(cursor, purgedUpTo + CLEANUP_CHUNK);
+			repository.deleteRange(purgedUpTo, upTo);
+			purgedUpTo = upTo;
+		}
+	}
+}
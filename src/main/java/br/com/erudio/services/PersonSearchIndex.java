@@ -0,0 +1,286 @@
+package br.com.erudio.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonRepository;
+
+/**
+ * In-memory trigram index over first names, last names and emails for
+ * type-ahead search. Values are lower-cased, stripped of accents and split
+ * into tokens of letters and digits, and every token is indexed behind two
+ * {@code ^} markers: a short query such as "ed" becomes the grams "^^e" and
+ * "^ed" and matches as a prefix, while longer queries match on trigram
+ * overlap and survive a typo or two.
+ * <p>
+ * A person matches when its text holds at least half of the query's grams, and
+ * never fewer than two so that "ed" does not match every "email". By
+ * pigeonhole a match then sits in one of the rarest postings for the query,
+ * and only those are walked, within a candidate budget; postings such as the
+ * "com" of every email are never scanned. Matches are ranked by the grams they
+ * share, then by the shorter text, and the walk stops as soon as {@code limit}
+ * people hold every gram the index knows, so a common name is answered from
+ * the oldest people that carry it. Postings only grow: an update or delete
+ * replaces the person's text, entries that no longer agree with it are
+ * skipped, and a posting is compacted once half of it is stale.
+ * <p>
+ * Until the startup scan finishes only people written since startup are found.
+ */
+@Component
+@ConditionalOnProperty(name = "person.search.enabled", havingValue = "true")
+public class PersonSearchIndex {
+
+	private static final char MARK = '^';
+	private static final double MIN_OVERLAP = 0.5;
+	private static final int CANDIDATE_BUDGET = 10_000;
+
+	private Logger logger = Logger.getLogger(PersonSearchIndex.class.getName());
+
+	private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+	private final Map<Long, String> documents = new ConcurrentHashMap<>();
+	private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet();
+	private volatile boolean loaded;
+
+	@Autowired
+	PersonRepository repository;
+
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+
+		logger.info("Loading the search index!");
+
+		// Writes that land during the scan are newer than the rows it reads
+		try (Stream<PersonView> people = repository.streamAllViews()) {
+			people.forEach(person -> {
+				if (!documents.containsKey(person.id()) && !removedWhileLoading.contains(person.id())) {
+					put(person.id(), person.firstName(), person.lastName(), person.email());
+				}
+			});
+		}
+		loaded = true;
+		removedWhileLoading.clear();
+	}
+
+	public void put(Long id, String firstName, String lastName, String email) {
+		String text = text(firstName, lastName, email);
+		String previous = documents.put(id, text);
+		if (text.equals(previous)) {
+			return;
+		}
+		for (String gram : grams(text)) {
+			if (previous == null || !previous.contains(gram)) {
+				postings.computeIfAbsent(gram, key -> new Posting()).add(id);
+			}
+		}
+		if (previous != null) {
+			retire(previous, text);
+		}
+	}
+
+	public void remove(Long id) {
+		if (!loaded) {
+			removedWhileLoading.add(id);
+		}
+		String previous = documents.remove(id);
+		if (previous != null) {
+			retire(previous, "");
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} ids, best match first.
+	 */
+	public List<Long> search(String query, int limit) {
+		List<String> grams = new ArrayList<>(grams(text(query)));
+		if (grams.isEmpty()) {
+			return List.of();
+		}
+		int required = Math.max(Math.min(2, grams.size()), (int) Math.ceil(grams.size() * MIN_OVERLAP));
+
+		List<Posting> found = new ArrayList<>(grams.size());
+		for (String gram : grams) {
+			Posting posting = postings.get(gram);
+			if (posting != null) {
+				found.add(posting);
+			}
+		}
+		if (found.size() < required) {
+			return List.of();
+		}
+		found.sort(Comparator.comparingInt(Posting::size));
+
+		// Anyone holding enough grams is in at least one of the rarest postings, and
+		// nobody can beat holding every gram that has a posting at all
+		int best = found.size();
+		Set<Long> seen = new HashSet<>();
+		List<Match> matches = new ArrayList<>();
+		int perfect = 0;
+		int budget = CANDIDATE_BUDGET;
+		scan:
+		for (Posting posting : found.subList(0, found.size() - required + 1)) {
+			Snapshot snapshot = posting.snapshot();
+			for (int i = 0; i < snapshot.size(); i++) {
+				long id = snapshot.ids()[i];
+				if (!seen.add(id)) {
+					continue;
+				}
+				if (budget-- == 0) {
+					break scan;
+				}
+				String text = documents.get(id);
+				int score = text == null ? 0 : score(text, grams);
+				if (score >= required) {
+					matches.add(new Match(id, score, text.length()));
+					if (score >= best && ++perfect == limit) {
+						break scan;
+					}
+				}
+			}
+		}
+		return matches.stream()
+			.sorted(Comparator.comparingInt(Match::score).reversed()
+				.thenComparingInt(Match::length)
+				.thenComparingLong(Match::id))
+			.limit(limit)
+			.map(Match::id)
+			.toList();
+	}
+
+	private static int score(String text, List<String> grams) {
+		int score = 0;
+		for (String gram : grams) {
+			if (text.contains(gram)) {
+				score++;
+			}
+		}
+		return score;
+	}
+
+	private void retire(String previous, String current) {
+		for (String gram : grams(previous)) {
+			if (!current.contains(gram)) {
+				Posting posting = postings.get(gram);
+				if (posting != null && posting.retire()) {
+					posting.compact(id -> {
+						String text = documents.get(id);
+						return text != null && text.contains(gram);
+					});
+				}
+			}
+		}
+	}
+
+	// Tokens of letters and digits, accents dropped, each behind two markers
+	static String text(String... values) {
+		String folded = Normalizer.normalize(String.join(" ", Stream.of(values).filter(Objects::nonNull).toList()),
+				Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+		StringBuilder text = new StringBuilder(folded.length() + 8);
+		boolean inToken = false;
+		for (int i = 0; i < folded.length(); i++) {
+			char c = folded.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				if (!inToken) {
+					if (!text.isEmpty()) {
+						text.append(' ');
+					}
+					text.append(MARK).append(MARK);
+					inToken = true;
+				}
+				text.append(c);
+			} else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+				inToken = false;
+			}
+		}
+		return text.toString();
+	}
+
+	static Set<String> grams(String text) {
+		Set<String> grams = new LinkedHashSet<>();
+		int start = 0;
+		while (start < text.length()) {
+			int end = text.indexOf(' ', start);
+			if (end < 0) {
+				end = text.length();
+			}
+			for (int i = start; i + 3 <= end; i++) {
+				grams.add(text.substring(i, i + 3));
+			}
+			start = end + 1;
+		}
+		return grams;
+	}
+
+	private record Match(long id, int score, int length) {
+	}
+
+	private record Snapshot(long[] ids, int size) {
+	}
+
+	private interface IdFilter {
+		boolean keep(long id);
+	}
+
+	// Ids appended in arrival order; readers take the array and size together without
+	// copying, which stays safe because appends only write past the size they saw
+	private static final class Posting {
+
+		private long[] ids = new long[4];
+		private int size;
+		private int stale;
+
+		synchronized void add(long id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+
+		synchronized Snapshot snapshot() {
+			return new Snapshot(ids, size);
+		}
+
+		synchronized int size() {
+			return size;
+		}
+
+		// Counts one entry that went stale and says whether half the posting now is
+		synchronized boolean retire() {
+			return ++stale * 2 > size;
+		}
+
+		synchronized void compact(IdFilter filter) {
+			long[] live = Arrays.copyOf(ids, size);
+			Arrays.sort(live);
+			int kept = 0;
+			for (int i = 0; i < live.length; i++) {
+				if ((i == 0 || live[i] != live[i - 1]) && filter.keep(live[i])) {
+					live[kept++] = live[i];
+				}
+			}
+			ids = Arrays.copyOf(live, Math.max(4, kept));
+			size = kept;
+			stale = 0;
+		}
+	}
+}
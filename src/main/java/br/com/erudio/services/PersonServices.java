@@ -1,72 +1,538 @@
 package br.com.erudio.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.logging.Logger;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.config.CacheConfig;
+import br.com.erudio.exceptions.BadRequestException;
+import br.com.erudio.exceptions.ConflictException;
+import br.com.erudio.exceptions.PreconditionFailedException;
 import br.com.erudio.exceptions.ResourceNotFoundException;
 import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.model.PersonFilter;
+import br.com.erudio.model.PersonPage;
+import br.com.erudio.model.PersonView;
 import br.com.erudio.repositories.PersonRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class PersonServices {
 	
-	private Logger logger = Logger.getLogger(PersonServices.class.getName());
+	public static final int MAX_PAGE_SIZE = 1000;
+	public static final int DEFAULT_PAGE_SIZE = 100;
+	public static final int MAX_BATCH_SIZE = 10_000;
+	public static final int MAX_SEARCH_LIMIT = 100;
+	
+	private static final int EMAIL_LOOKUP_CHUNK = 1000;
+	private static final int FLUSH_CHUNK = 500;
+	private static final int INDEXED_FILTERS = PersonFilter.FIRST_NAME | PersonFilter.LAST_NAME | PersonFilter.GENDER;
+	private static final int DELETE_CHUNK = 1000;
+	private static final int LOG_LINES_PER_SECOND = 10;
+	
+	private SampledLogger logger = new SampledLogger(PersonServices.class, LOG_LINES_PER_SECOND);
 	
 	@Autowired
 	PersonRepository repository;
+	
+	@Autowired
+	ObjectMapper objectMapper;
+	
+	@PersistenceContext
+	EntityManager entityManager;
+	
+	@Autowired(required = false)
+	EmailBloomFilter emailFilter;
+	
+	@Autowired(required = false)
+	CacheManager cacheManager;
+	
+	@Autowired(required = false)
+	PersonSearchIndex searchIndex;
+	
+	@Autowired(required = false)
+	PersonOutbox outbox;
+	
+	// Each chunk of a bulk delete that feeds the outbox commits on its own
+	private TransactionTemplate chunkTransaction;
+	
+	@Value("${person.filter.allow-unindexed:false}")
+	boolean allowUnindexedFilters;
+	
+	private final Set<Integer> unindexedShapesSeen = ConcurrentHashMap.newKeySet();
+	
+	@Autowired
+	void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.chunkTransaction = new TransactionTemplate(transactionManager);
+	}
 
-	public List<Person> findAll() {
+	@Transactional(readOnly = true)
+	public List<PersonView> findAll() {
 
 		logger.info("Finding all people!");
 
-		return repository.findAll();
+		return repository.findAllViews();
 	}
 
-	public Person findById(Long id) {
+	@Transactional(readOnly = true)
+	public PersonPage findPage(String after, int limit) {
+		return findPage(null, after, limit);
+	}
+
+	@Transactional(readOnly = true)
+	public PersonPage findPage(PersonFilter filter, String after, int limit) {
+
+		logger.info("Finding one page of people!");
+
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new BadRequestException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		Long lastId = after == null ? 0L : PageCursor.decode(after);
+
+		// One extra row tells us whether another page exists without a count query
+		List<PersonView> rows = filter == null || filter.isEmpty()
+			? repository.findPageAfter(lastId, limit + 1)
+			: repository.findFilteredPageAfter(checkIndexed(filter), lastId, limit + 1);
+		if (rows.size() <= limit) {
+			return new PersonPage(rows, null);
+		}
+		List<PersonView> content = rows.subList(0, limit);
+		return new PersonPage(content, PageCursor.encode(content.get(limit - 1).id()));
+	}
+
+	// Keyset pages walk the rows in id order, which only stays cheap when an index
+	// narrows them first: first_name, last_name and gender each lead one, while an
+	// email domain is a suffix match no index can serve
+	private PersonFilter checkIndexed(PersonFilter filter) {
+		if ((filter.shape() & INDEXED_FILTERS) != 0) {
+			return filter;
+		}
+		if (!allowUnindexedFilters) {
+			throw new BadRequestException("Filter by firstName, lastName or gender as well");
+		}
+		if (unindexedShapesSeen.add(filter.shape())) {
+			logger.warning("Filtering people without an index, shape " + filter.shape());
+		}
+		return filter;
+	}
+
+	@Transactional(readOnly = true)
+	public void exportAll(OutputStream out) throws IOException {
+
+		logger.info("Exporting all people!");
+
+		// One JSON document per line; each row is detached once written so the
+		// persistence context never holds more than the current row
+		try (Stream<Person> people = repository.streamAll();
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.setRootValueSeparator(null);
+			for (Iterator<Person> it = people.iterator(); it.hasNext();) {
+				Person person = it.next();
+				generator.writeObject(person);
+				generator.writeRaw('\n');
+				entityManager.detach(person);
+			}
+		}
+	}
+
+	// Backs conditional GETs: answers If-None-Match from the cached view when there is
+	// one, and otherwise reads only the version column. Not transactional, so a cache
+	// hit costs a polling client no round trip
+	public long findVersion(Long id) {
+		Cache cache = personCache();
+		PersonView cached = cache == null ? null : cache.get(id, PersonView.class);
+		if (cached != null) {
+			return cached.version();
+		}
+		return repository.findVersionById(id)
+			.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+	}
+	
+	@Transactional(readOnly = true)
+	public String findCollectionVersion() {
+		return repository.findCollectionVersion();
+	}
+	
+	public List<Long> search(String query, int limit) {
+
+		logger.info("Searching people!");
+
+		if (searchIndex == null) {
+			throw new ResourceNotFoundException("Search is not enabled");
+		}
+		if (query == null || query.isBlank()) {
+			throw new BadRequestException("Search query must not be blank");
+		}
+		if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+			throw new BadRequestException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+		}
+		return searchIndex.search(query, limit);
+	}
+	
+	public PersonView findById(Long id) {
+		return lookup(id)
+			.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+	}
+	
+	// The miss path for callers that answer a missing person themselves, without
+	// an exception in between. Not transactional, so a cache hit opens nothing; on a
+	// miss findViewById runs in a read-only transaction of its own, which is what
+	// routes it to a replica
+	public Optional<PersonView> lookup(Long id) {
+		return Optional.ofNullable(loadView(id));
+	}
+	
+	// Caffeine loads each id under a per-key lock, like @Cacheable(sync = true), so an
+	// eviction issued while a load is in flight waits for it and then removes the
+	// possibly stale value. Unlike the annotation, a miss comes back as null with
+	// nothing stored, instead of an exception that Spring wraps twice on the way out
+	private PersonView loadView(Long id) {
+		Cache cache = personCache();
+		if (cache instanceof CaffeineCache caffeine) {
+			return (PersonView) caffeine.getNativeCache().get(id, key -> queryView(id));
+		}
+		return queryView(id);
+	}
+	
+	private Cache personCache() {
+		return cacheManager == null ? null : cacheManager.getCache(CacheConfig.PERSON_CACHE);
+	}
+	
+	private PersonView queryView(Long id) {
 		
 		logger.info("Finding one person!");
 		
-		return repository.findById(id)
-			.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+		return repository.findViewById(id).orElse(null);
 	}
 	
+	@Transactional
 	public Person create(Person person) {
 
 		logger.info("Creating one person!");
 
-		Optional<Person> savedPerson = repository.findByEmail(person.getEmail());
+		// The filter only skips the lookup for emails that are certainly new; the
+		// unique index is what actually rejects duplicates, including concurrent ones
+		if (emailFilter != null && person.getEmail() != null
+				&& emailFilter.mightContain(person.getEmail())
+				&& repository.existsByEmail(person.getEmail())) {
+			throw new ConflictException("Email alredy registered");
+		}
 
-		if(savedPerson.isPresent()) {
-			throw new RuntimeException("Email alredy registered");
+		person.setId(null);
+		Person savedPerson;
+		try {
+			savedPerson = repository.saveAndFlush(person);
+		} catch (DataIntegrityViolationException e) {
+			if (isEmailConflict(e)) {
+				throw new ConflictException("Email alredy registered");
+			}
+			throw e;
+		}
+		rememberEmail(savedPerson);
+		if (outbox != null) {
+			outbox.created(List.of(savedPerson));
 		}
-		return repository.save(person);
+		afterCommit(() -> index(savedPerson));
+		return savedPerson;
 	}
 	
+	private static boolean isEmailConflict(DataIntegrityViolationException e) {
+		return e.getCause() instanceof ConstraintViolationException violation
+				&& violation.getConstraintName() != null
+				&& violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Person.EMAIL_CONSTRAINT);
+	}
+	
+	private void rememberEmail(Person person) {
+		if (emailFilter != null && person.getEmail() != null) {
+			emailFilter.add(person.getEmail());
+		}
+	}
+	
+	private void index(Person person) {
+		if (searchIndex != null) {
+			searchIndex.put(person.getId(), person.getFirstName(), person.getLastName(), person.getEmail());
+		}
+	}
+	
+	private void unindex(Long id) {
+		if (searchIndex != null) {
+			searchIndex.remove(id);
+		}
+	}
+	
+	@Transactional
+	public PersonBatchResult createAll(List<Person> people) {
+
+		logger.info("Creating a batch of people!");
+
+		if (people.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("A batch accepts at most " + MAX_BATCH_SIZE + " people");
+		}
+		PersonBatchResult result = new PersonBatchResult(people.size());
+
+		// Emails are keyed case-insensitively to match the column collation
+		Map<String, Integer> candidates = new LinkedHashMap<>();
+		for (int i = 0; i < people.size(); i++) {
+			Person person = people.get(i);
+			if (!isComplete(person)) {
+				result.rejected(i, "Missing required fields");
+			} else if (!fitsColumns(person)) {
+				result.rejected(i, "Fields longer than allowed");
+			} else if (candidates.putIfAbsent(person.getEmail().toLowerCase(Locale.ROOT), i) != null) {
+				result.rejected(i, "Email repeated in batch");
+			}
+		}
+
+		List<String> emails = new ArrayList<>(candidates.keySet());
+		for (int from = 0; from < emails.size(); from += EMAIL_LOOKUP_CHUNK) {
+			List<String> chunk = emails.subList(from, Math.min(from + EMAIL_LOOKUP_CHUNK, emails.size()));
+			for (String existing : repository.findExistingEmails(chunk)) {
+				Integer index = candidates.remove(existing.toLowerCase(Locale.ROOT));
+				if (index != null) {
+					result.rejected(index, "Email alredy registered");
+				}
+			}
+		}
+
+		// Ids come from the pooled allocator, so Hibernate can group the inserts into
+		// JDBC batches; flushing and clearing per chunk keeps the persistence context bounded
+		List<Integer> indexes = new ArrayList<>(candidates.values());
+		List<Person> created = new ArrayList<>(indexes.size());
+		for (int from = 0; from < indexes.size(); from += FLUSH_CHUNK) {
+			List<Integer> chunk = indexes.subList(from, Math.min(from + FLUSH_CHUNK, indexes.size()));
+			for (int index : chunk) {
+				Person person = people.get(index);
+				person.setId(null);
+				result.created(index, repository.save(person).getId());
+				rememberEmail(person);
+				created.add(person);
+			}
+			entityManager.flush();
+			entityManager.clear();
+		}
+		if (outbox != null) {
+			outbox.created(created);
+		}
+		// A rolled back batch must not leave searchable ghosts behind
+		afterCommit(() -> created.forEach(this::index));
+		return result;
+	}
+	
+	static boolean isComplete(Person person) {
+		return person != null
+				&& hasText(person.getFirstName())
+				&& hasText(person.getLastName())
+				&& hasText(person.getAddress())
+				&& hasText(person.getGender())
+				&& hasText(person.getEmail());
+	}
+	
+	// Checked before the insert, where one value too long would fail the whole batch
+	static boolean fitsColumns(Person person) {
+		return fits(person.getFirstName(), Person.NAME_LENGTH)
+				&& fits(person.getLastName(), Person.NAME_LENGTH)
+				&& fits(person.getAddress(), Person.ADDRESS_LENGTH)
+				&& fits(person.getGender(), Person.GENDER_LENGTH)
+				&& fits(person.getEmail(), Person.EMAIL_LENGTH);
+	}
+	
+	private static boolean fits(String value, int length) {
+		return value == null || value.length() <= length;
+	}
+	
+	private static boolean hasText(String value) {
+		return value != null && !value.isBlank();
+	}
+	
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+	
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PERSON_CACHE, key = "#person.id")
 	public Person update(Person person) {
+		return update(person, null);
+	}
+	
+	// One read-write transaction, so the version is checked against the primary
+	// and not against a replica that may not have seen the last write yet
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PERSON_CACHE, key = "#person.id")
+	public Person update(Person person, Long expectedVersion) {
 		
 		logger.info("Updating one person!");
 		
 		var entity = repository.findById(person.getId())
 			.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+		if (expectedVersion != null && expectedVersion != entity.getVersion()) {
+			throw new PreconditionFailedException("Person was changed by another request!");
+		}
 
 		entity.setFirstName(person.getFirstName());
 		entity.setLastName(person.getLastName());
 		entity.setAddress(person.getAddress());
 		entity.setGender(person.getGender());
+		entity.setEmail(person.getEmail());
 		
-		return repository.save(person);
+		// The loaded entity carries the current version, so a concurrent update
+		// between the lookup and the flush still fails instead of being lost
+		Person updatedPerson;
+		try {
+			updatedPerson = repository.saveAndFlush(entity);
+		} catch (OptimisticLockingFailureException e) {
+			throw new PreconditionFailedException("Person was changed by another request!");
+		} catch (DataIntegrityViolationException e) {
+			if (isEmailConflict(e)) {
+				throw new ConflictException("Email alredy registered");
+			}
+			throw e;
+		}
+		rememberEmail(updatedPerson);
+		if (outbox != null) {
+			outbox.updated(PersonView.of(updatedPerson));
+		}
+		afterCommit(() -> index(updatedPerson));
+		return updatedPerson;
+	}
+	
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PERSON_CACHE, key = "#id")
+	public void patch(Long id, Person changes, Long expectedVersion) {
+		
+		logger.info("Patching one person!");
+		
+		// A single UPDATE; the affected row count replaces the existence lookup
+		int updated;
+		try {
+			updated = repository.patch(id, changes.getFirstName(), changes.getLastName(),
+					changes.getAddress(), changes.getGender(), changes.getEmail(), expectedVersion);
+		} catch (DataIntegrityViolationException e) {
+			if (isEmailConflict(e)) {
+				throw new ConflictException("Email alredy registered");
+			}
+			throw e;
+		}
+		if (updated == 0) {
+			// Only the failure path pays for telling a stale version from a missing row
+			if (expectedVersion != null && repository.findVersionById(id).isPresent()) {
+				throw new PreconditionFailedException("Person was changed by another request!");
+			}
+			throw new ResourceNotFoundException("No records found for this ID!");
+		}
+		rememberEmail(changes);
+		// The UPDATE leaves the other fields unread, so the event and reindexing need the row
+		boolean reindex = searchIndex != null && (changes.getFirstName() != null || changes.getLastName() != null
+				|| changes.getEmail() != null);
+		if (outbox != null || reindex) {
+			repository.findViewById(id).ifPresent(person -> {
+				if (outbox != null) {
+					outbox.updated(person);
+				}
+				if (reindex) {
+					afterCommit(() -> searchIndex.put(person.id(), person.firstName(), person.lastName(),
+						person.email()));
+				}
+			});
+		}
 	}
 	
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PERSON_CACHE, key = "#id")
 	public void delete(Long id) {
 		
 		logger.info("Deleting one person!");
 		
-		var entity = repository.findById(id)
-				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-		repository.delete(entity);
+		if (repository.purge(id) == 0) {
+			throw new ResourceNotFoundException("No records found for this ID!");
+		}
+		if (outbox != null) {
+			outbox.deleted(List.of(id));
+		}
+		afterCommit(() -> unindex(id));
+	}
+	
+	public int deleteAll(List<Long> ids) {
+		
+		logger.info("Deleting a list of people!");
+		
+		if (ids == null || ids.isEmpty()) {
+			throw new BadRequestException("At least one id must be informed");
+		}
+		List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+		distinct.remove(null);
+		
+		// One IN-list DELETE per chunk, each in its own short transaction, so purges of
+		// hundreds of thousands of ids neither hold locks for the whole run nor build huge statements.
+		// Each chunk leaves the cache as soon as it commits, so a later chunk failing, or still
+		// running, never serves people already deleted
+		int deleted = 0;
+		for (int from = 0; from < distinct.size(); from += DELETE_CHUNK) {
+			List<Long> chunk = distinct.subList(from, Math.min(from + DELETE_CHUNK, distinct.size()));
+			deleted += outbox == null ? repository.purgeAll(chunk) : purgeRecorded(chunk);
+			chunk.forEach(this::evict);
+			chunk.forEach(this::unindex);
+		}
+		return deleted;
+	}
+	
+	private void evict(Long id) {
+		Cache cache = personCache();
+		if (cache != null) {
+			cache.evict(id);
+		}
+	}
+	
+	// The outbox needs to know which of the ids were actually there: locking them
+	// first means no concurrent delete can take one between the lookup and the DELETE
+	private int purgeRecorded(List<Long> chunk) {
+		return chunkTransaction.execute(status -> {
+			List<Long> existing = repository.lockExistingIds(chunk);
+			if (existing.isEmpty()) {
+				return 0;
+			}
+			int deleted = repository.purgeAll(existing);
+			outbox.deleted(existing);
+			return deleted;
+		});
 	}
 }
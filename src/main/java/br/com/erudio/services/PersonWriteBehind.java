@@ -0,0 +1,298 @@
+package br.com.erudio.services;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.erudio.exceptions.BadRequestException;
+import br.com.erudio.exceptions.ServiceUnavailableException;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.model.PersonWriteStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Write-behind for creates. {@link #submit} checks the person, puts it on a
+ * bounded queue and answers with a tracking id; one flusher thread takes
+ * whatever has accumulated, up to {@code batchSize} people or for at most
+ * {@code maxDelay} after the first, and stores it with
+ * {@link PersonServices#createAll}, so a burst of sign-ups becomes a few
+ * batched inserts. Emails already registered, or repeated within a batch, end
+ * up rejected there, just as in a bulk create.
+ * <p>
+ * When the queue is full a submission waits up to {@code offerTimeout} and is
+ * then refused with a 503, so a burst the database cannot keep up with is
+ * pushed back on the clients instead of piling up in memory.
+ * <p>
+ * Accepted is not stored: the queue lives in memory only. A graceful shutdown
+ * stops taking submissions and flushes what is queued, but a crash or a kill
+ * loses it, and those people are neither stored nor reported as failed.
+ * Clients that cannot afford that use the synchronous create. A batch the
+ * database refuses over the data of some person in it is halved until that
+ * person is alone and reported as rejected, so the others still get stored.
+ * Any other failure is retried up to {@code maxAttempts} times, after which
+ * the batch's people are reported as failed. Statuses are kept for
+ * {@code statusTtl} after the last change.
+ */
+@Component
+@ConditionalOnProperty(name = "person.write-behind.enabled", havingValue = "true")
+public class PersonWriteBehind implements SmartLifecycle {
+
+	private static final Duration RETRY_BACKOFF = Duration.ofMillis(200);
+	private static final Duration IDLE_POLL = Duration.ofMillis(100);
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+	private Logger logger = Logger.getLogger(PersonWriteBehind.class.getName());
+
+	private final PersonServices service;
+	private final BlockingQueue<Queued> queue;
+	private final Cache<String, PersonWriteStatus> statuses;
+	private final int batchSize;
+	private final Duration maxDelay;
+	private final Duration offerTimeout;
+	private final int maxAttempts;
+
+	private final Counter refused;
+	private final DistributionSummary batches;
+
+	private volatile boolean accepting;
+	private volatile Thread flusher;
+
+	private record Queued(String trackingId, Person person) {}
+
+	public PersonWriteBehind(PersonServices service, MeterRegistry registry,
+			@Value("${person.write-behind.capacity:10000}") int capacity,
+			@Value("${person.write-behind.batch-size:500}") int batchSize,
+			@Value("${person.write-behind.max-delay:50ms}") Duration maxDelay,
+			@Value("${person.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+			@Value("${person.write-behind.max-attempts:3}") int maxAttempts,
+			@Value("${person.write-behind.status-ttl:10m}") Duration statusTtl) {
+		this.service = service;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.batchSize = Math.min(batchSize, PersonServices.MAX_BATCH_SIZE);
+		this.maxDelay = maxDelay;
+		this.offerTimeout = offerTimeout;
+		this.maxAttempts = maxAttempts;
+		this.statuses = Caffeine.newBuilder().expireAfterWrite(statusTtl).build();
+		Gauge.builder("person.write-behind.queued", queue, BlockingQueue::size)
+			.description("People accepted and not yet flushed").register(registry);
+		this.refused = Counter.builder("person.write-behind.refused")
+			.description("Submissions refused because the queue was full").register(registry);
+		this.batches = DistributionSummary.builder("person.write-behind.batch")
+			.description("People per flushed batch").register(registry);
+	}
+
+	public PersonWriteStatus submit(Person person) {
+		if (!PersonServices.isComplete(person)) {
+			throw new BadRequestException("Missing required fields");
+		}
+		if (!PersonServices.fitsColumns(person)) {
+			throw new BadRequestException("Fields longer than allowed");
+		}
+		if (!accepting) {
+			throw new ServiceUnavailableException("Not accepting queued creates");
+		}
+		String trackingId = UUID.randomUUID().toString();
+		PersonWriteStatus status = PersonWriteStatus.queued(trackingId);
+		// Recorded first, so the flusher never finishes a person with no status to replace
+		statuses.put(trackingId, status);
+		boolean offered;
+		try {
+			offered = queue.offer(new Queued(trackingId, person), offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			offered = false;
+		}
+		if (!offered) {
+			statuses.invalidate(trackingId);
+			refused.increment();
+			throw new ServiceUnavailableException("Too many people queued, try again later");
+		}
+		return status;
+	}
+
+	public PersonWriteStatus status(String trackingId) {
+		return statuses.getIfPresent(trackingId);
+	}
+
+	@Override
+	public void start() {
+		accepting = true;
+		flusher = new Thread(this::run, "person-write-behind");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	// Refuses new submissions, then lets the flusher empty the queue before the
+	// data source goes away. The flusher is never interrupted: the pool would
+	// fail its connection request, and the batch in hand with it
+	@Override
+	public void stop() {
+		accepting = false;
+		Thread thread = flusher;
+		if (thread == null) {
+			return;
+		}
+		try {
+			thread.join(SHUTDOWN_TIMEOUT.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (thread.isAlive()) {
+			logger.warning("Stopped with " + queue.size() + " queued people not yet stored");
+		}
+		flusher = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return flusher != null;
+	}
+
+	// Started before the web server takes requests and stopped after it has
+	// finished with them, so nothing is submitted to a stopped queue
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+
+	private void run() {
+		List<Queued> batch = new ArrayList<>(batchSize);
+		while (accepting || !queue.isEmpty()) {
+			try {
+				collect(batch);
+			} catch (InterruptedException e) {
+				// Nothing here interrupts it, so whoever did wants the thread gone
+				logger.warning("Interrupted with " + queue.size() + " queued people not yet stored");
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				if (!batch.isEmpty()) {
+					flush(batch);
+					batch.clear();
+				}
+			}
+		}
+	}
+
+	// Waits for the first person, then gathers more until the batch is full or
+	// maxDelay has passed since the first arrived. Once stopping, only what is
+	// already queued goes in
+	private void collect(List<Queued> batch) throws InterruptedException {
+		Queued first = queue.poll(IDLE_POLL.toNanos(), TimeUnit.NANOSECONDS);
+		if (first == null) {
+			return;
+		}
+		batch.add(first);
+		long deadline = System.nanoTime() + maxDelay.toNanos();
+		while (batch.size() < batchSize) {
+			if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+				continue;
+			}
+			long left = deadline - System.nanoTime();
+			if (!accepting || left <= 0) {
+				return;
+			}
+			Queued next = queue.poll(Math.min(left, IDLE_POLL.toNanos()), TimeUnit.NANOSECONDS);
+			if (next != null) {
+				batch.add(next);
+			}
+		}
+	}
+
+	private void flush(List<Queued> batch) {
+		batches.record(batch.size());
+		store(batch);
+	}
+
+	private void store(List<Queued> batch) {
+		List<Person> people = new ArrayList<>(batch.size());
+		for (Queued queued : batch) {
+			people.add(queued.person());
+		}
+		for (int attempt = 1;; attempt++) {
+			try {
+				// createAll clears the ids of the people it is given, so a retry after
+				// a rollback stores the same instances afresh
+				PersonBatchResult result = service.createAll(people);
+				for (PersonBatchResult.Item item : result.getItems()) {
+					String trackingId = batch.get(item.getIndex()).trackingId();
+					statuses.put(trackingId, item.getId() != null
+						? new PersonWriteStatus(trackingId, PersonWriteStatus.State.CREATED, item.getId(), null)
+						: new PersonWriteStatus(trackingId, PersonWriteStatus.State.REJECTED, null, item.getError()));
+				}
+				return;
+			} catch (RuntimeException e) {
+				if (isDataError(e)) {
+					// The same people fail the same way however often they are retried
+					split(batch, e);
+					return;
+				}
+				if (attempt >= maxAttempts) {
+					logger.log(Level.WARNING, "Giving up on a batch of " + batch.size() + " queued people", e);
+					for (Queued queued : batch) {
+						statuses.put(queued.trackingId(), new PersonWriteStatus(queued.trackingId(),
+							PersonWriteStatus.State.FAILED, null, "Could not be stored"));
+					}
+					return;
+				}
+				logger.log(Level.INFO, "Retrying a batch of " + batch.size() + " queued people", e);
+				try {
+					Thread.sleep(RETRY_BACKOFF.multipliedBy(attempt).toMillis());
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	// Halves the batch until the person the database refuses is alone
+	private void split(List<Queued> batch, RuntimeException e) {
+		if (batch.size() == 1) {
+			String trackingId = batch.get(0).trackingId();
+			logger.log(Level.INFO, "The database refused queued person " + trackingId, e);
+			statuses.put(trackingId, new PersonWriteStatus(trackingId, PersonWriteStatus.State.REJECTED, null,
+				"Refused by the database"));
+			return;
+		}
+		int half = batch.size() / 2;
+		store(batch.subList(0, half));
+		store(batch.subList(half, batch.size()));
+	}
+
+	// SQLSTATE class 22 (data exception) or 23 (integrity constraint violation):
+	// something in the rows, not the connection or the server. The flush inside
+	// createAll goes past Spring's exception translation, so the SQLException
+	// beneath is what tells
+	private static boolean isDataError(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sql) {
+				for (SQLException next = sql; next != null; next = next.getNextException()) {
+					String state = next.getSQLState();
+					if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+}
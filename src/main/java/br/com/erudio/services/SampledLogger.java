@@ -0,0 +1,73 @@
+package br.com.erudio.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-call log lines for the request path. At most {@code perSecond} lines a
+ * second get through, and those are written by one background thread, so a
+ * request never waits on the log handler's lock. The calls that were sampled
+ * out, or found the queue full, are counted on the next line written.
+ * Warnings are not sampled.
+ */
+final class SampledLogger {
+
+	private static final BlockingQueue<Runnable> PENDING = new ArrayBlockingQueue<>(1024);
+
+	static {
+		Thread writer = new Thread(SampledLogger::drain, "sampled-logger");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	private final Logger logger;
+	private final long intervalNanos;
+	private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+	private final LongAdder skipped = new LongAdder();
+
+	SampledLogger(Class<?> owner, int perSecond) {
+		this.logger = Logger.getLogger(owner.getName());
+		this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / perSecond;
+	}
+
+	void info(String message) {
+		if (!logger.isLoggable(Level.INFO)) {
+			return;
+		}
+		long now = System.nanoTime();
+		long slot = nextSlot.get();
+		if (now - slot < 0 || !nextSlot.compareAndSet(slot, now + intervalNanos)) {
+			skipped.increment();
+			return;
+		}
+		long missed = skipped.sumThenReset();
+		String line = missed == 0 ? message : message + " (" + missed + " calls not logged)";
+		if (!PENDING.offer(() -> logger.info(line))) {
+			skipped.add(missed + 1);
+		}
+	}
+
+	// For rare lines, which are never sampled out; a full queue writes them in place
+	void warning(String message) {
+		if (logger.isLoggable(Level.WARNING) && !PENDING.offer(() -> logger.warning(message))) {
+			logger.warning(message);
+		}
+	}
+
+	private static void drain() {
+		while (true) {
+			try {
+				PENDING.take().run();
+			} catch (InterruptedException e) {
+				return;
+			} catch (RuntimeException e) {
+				// A failing handler must not stop the writer for everyone else
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * V1 declares uk_person_email only when it creates the table; on a database
+ * Hibernate built first its CREATE TABLE IF NOT EXISTS is skipped and the
+ * email column was left without any unique key, which ddl-auto: validate does
+ * not notice. PersonServices relies on that key to reject duplicates, so it is
+ * added here when missing. MySQL has no ADD CONSTRAINT IF NOT EXISTS, hence a
+ * Java migration that looks in information_schema first. Rows already
+ * sharing an email make the ALTER fail; they have to be merged by hand.
+ */
+public class V6__Add_person_email_unique_key extends BaseJavaMigration {
+
+	@Override
+	public void migrate(Context context) throws SQLException {
+		Connection connection = context.getConnection();
+		if (hasEmailKey(connection)) {
+			return;
+		}
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE person ADD CONSTRAINT uk_person_email UNIQUE (email)");
+		}
+	}
+
+	private static boolean hasEmailKey(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM information_schema.table_constraints "
+						+ "WHERE table_schema = SCHEMA() AND LOWER(table_name) = 'person' "
+						+ "AND LOWER(constraint_name) = 'uk_person_email'")) {
+			rows.next();
+			return rows.getLong(1) > 0;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+-- Baseline of the schema previously created by ddl-auto: update. IF NOT EXISTS
+-- lets this run both on a fresh database and on one Hibernate already built.
+CREATE TABLE IF NOT EXISTS person (
+    id BIGINT NOT NULL,
+    first_name VARCHAR(80) NOT NULL,
+    last_name VARCHAR(80) NOT NULL,
+    address VARCHAR(100) NOT NULL,
+    gender VARCHAR(6) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_person_email UNIQUE (email)
+);
+
+-- Backing table of the pooled person_seq generator (MySQL has no sequences)
+CREATE TABLE IF NOT EXISTS person_seq (
+    next_val BIGINT
+);
+
+INSERT INTO person_seq (next_val)
+SELECT 1 FROM DUAL
+WHERE NOT EXISTS (SELECT * FROM person_seq);
+
+-- Hibernate allocates ids in blocks of 50 next to next_val, so move it a full
+-- block past rows inserted while ids still came from AUTO_INCREMENT
+UPDATE person_seq
+SET next_val = (SELECT COALESCE(MAX(id), 0) + 50 FROM person)
+WHERE next_val < (SELECT COALESCE(MAX(id), 0) + 50 FROM person)
+  AND EXISTS (SELECT * FROM person);
@@ -0,0 +1,4 @@
+-- Serves findByJPQL, findByJPQLNamedParameters, findByNativeSQL and
+-- findByNativeSQLWithNamedParameters. Lookups by email already use the
+-- uk_person_email unique index.
+CREATE INDEX idx_person_name ON person (first_name, last_name);
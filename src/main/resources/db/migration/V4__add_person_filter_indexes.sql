@@ -0,0 +1,8 @@
+-- Serve the GET /person filters on first name, last name and gender. Each index
+-- holds a single column: InnoDB appends the primary key to every secondary
+-- index, so an equality match on it yields the rows in id order and the keyset
+-- page stops after limit rows. idx_person_name, ordered by last name within a
+-- first name, only gives that order when both names are filtered on.
+CREATE INDEX idx_person_first_name ON person (first_name);
+CREATE INDEX idx_person_last_name ON person (last_name);
+CREATE INDEX idx_person_gender ON person (gender);
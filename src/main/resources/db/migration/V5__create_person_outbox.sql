@@ -0,0 +1,21 @@
+-- Change events of person, inserted in the transaction that makes the change.
+-- Unlike the pooled person ids, AUTO_INCREMENT hands ids out in the order the
+-- inserts run, so the relay can walk the primary key with a cursor.
+CREATE TABLE person_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    type VARCHAR(8) NOT NULL,
+    person_id BIGINT NOT NULL,
+    payload VARCHAR(2000),
+    created_at TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- The last event each relay has delivered; its row lock keeps two instances
+-- from relaying the same events at once
+CREATE TABLE person_outbox_cursor (
+    relay VARCHAR(32) NOT NULL,
+    last_id BIGINT NOT NULL,
+    PRIMARY KEY (relay)
+);
+
+INSERT INTO person_outbox_cursor (relay, last_id) VALUES ('default', 0);
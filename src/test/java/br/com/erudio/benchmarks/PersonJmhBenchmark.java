@@ -0,0 +1,42 @@
+package br.com.erudio.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH microbenchmarks in {@code br.com.erudio.benchmarks.jmh} and
+ * writes their results as JSON, so two builds can be compared by diffing the
+ * files or loading them into a JMH visualizer. Run with
+ * {@code mvn test -Pbenchmark -Dtest=PersonJmhBenchmark}; narrow the set with
+ * {@code -Djmh.include=<regex>} and move the output with {@code -Djmh.result}.
+ * Warmup, measurement and fork counts are declared on each benchmark class.
+ */
+@Tag("benchmark")
+class PersonJmhBenchmark {
+
+    @Test
+    @DisplayName("Run the JMH microbenchmarks and write the results as JSON")
+    void runJmhBenchmarks() throws RunnerException {
+
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "br\\.com\\.erudio\\.benchmarks\\.jmh\\..*"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty(), "no benchmark matched " + System.getProperty("jmh.include"));
+    }
+}
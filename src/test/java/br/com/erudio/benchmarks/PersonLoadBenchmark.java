@@ -0,0 +1,340 @@
+package br.com.erudio.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.services.PersonServices;
+
+/**
+ * Open-model load test of the Person REST endpoints against the whole
+ * application on an embedded H2 database. Requests are started on a fixed
+ * schedule of {@code -Dload.rate} per second, whatever the server's progress,
+ * and drawn from the weighted {@code -Dload.mix} of get, list (a 50 row page),
+ * create, update and delete. Each latency is measured from the moment the
+ * request was scheduled rather than from when it was actually sent, which
+ * corrects for coordinated omission: a stalled server is charged for every
+ * request that should have been waiting on it. The uncorrected service time
+ * is kept alongside for comparison.
+ * <p>
+ * The run fails on any unexpected status, and when the overall p99, the p99
+ * of any operation with enough samples to be stable, or the achieved
+ * throughput is worse than the baseline in {@code -Dload.baseline} by more
+ * than {@code -Dload.tolerance}. A baseline only applies to the rate and mix it was recorded with. Histograms are
+ * written to {@code target/load} in HdrHistogram's percentile format, along
+ * with a {@code baseline.properties} from this run to replace the stored one.
+ * Run with {@code mvn test -Pbenchmark -Dtest=PersonLoadBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "logging.level.root=WARN" })
+class PersonLoadBenchmark {
+
+    private static final int ROWS = Integer.getInteger("load.rows", 10_000);
+    private static final int RATE = Integer.getInteger("load.rate", 100);
+    private static final String MIX = System.getProperty("load.mix", "get:60,list:10,create:10,update:10,delete:10");
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 30));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+    private static final String BASELINE = System.getProperty("load.baseline", "/benchmarks/person-load-baseline.properties");
+    private static final Path OUTPUT = Path.of("target", "load");
+
+    // Below this many samples an operation's p99 is a handful of outliers, so only
+    // the overall p99 and throughput are compared for it
+    private static final long GATED_MIN_COUNT = 1000;
+
+    // Microsecond resolution up to a minute, to three significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private enum Operation { GET, LIST, CREATE, UPDATE, DELETE }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PersonServices service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final Map<Operation, Histogram> corrected = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> uncorrected = new EnumMap<>(Operation.class);
+    private final Histogram overall = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+
+    // Gets and updates only touch people that are never deleted; deletes take the
+    // reserved tail of the seed first and then whatever the creates added
+    private final List<Long> stableIds = new ArrayList<>();
+    private final Queue<Long> deletableIds = new ConcurrentLinkedQueue<>();
+
+    private Operation[] schedule;
+    private String base;
+
+    @BeforeEach
+    void setup() {
+        base = "http://localhost:" + port + "/person";
+        schedule = parseMix(MIX);
+        for (Operation operation : Operation.values()) {
+            corrected.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            uncorrected.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+
+        for (int from = 0; from < ROWS; from += PersonServices.MAX_BATCH_SIZE) {
+            List<Person> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + PersonServices.MAX_BATCH_SIZE, ROWS); i++) {
+                batch.add(new Person("First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male"));
+            }
+            PersonBatchResult result = service.createAll(batch);
+            for (PersonBatchResult.Item item : result.getItems()) {
+                (from + item.getIndex() < ROWS * 9 / 10 ? stableIds : deletableIds).add(item.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Load test the REST endpoints at a fixed rate against the stored baseline")
+    void loadTestAgainstBaseline() throws Exception {
+
+        // Runs the same schedule before measuring so JIT, pools and caches are warm
+        drive(WARMUP, false);
+        long measured = drive(DURATION, true);
+
+        double throughput = measured / (double) DURATION.toSeconds();
+        Properties result = report(throughput);
+        assertTrue(failures.isEmpty(), "requests answered with an unexpected status: " + failures);
+
+        Properties baseline = loadBaseline();
+        Assumptions.assumeTrue(baseline != null, "no baseline at " + BASELINE);
+        Assumptions.assumeTrue(result.getProperty("rate").equals(baseline.getProperty("rate"))
+                && result.getProperty("mix").equals(baseline.getProperty("mix")),
+                "baseline was recorded for another rate or mix");
+
+        List<String> regressions = new ArrayList<>();
+        double minimum = Double.parseDouble(baseline.getProperty("throughput")) * (1 - TOLERANCE);
+        if (throughput < minimum) {
+            regressions.add(String.format("throughput %.1f/s is below %.1f/s", throughput, minimum));
+        }
+        for (String key : baseline.stringPropertyNames()) {
+            if (key.startsWith("p99.ms") && result.containsKey(key)) {
+                double maximum = Double.parseDouble(baseline.getProperty(key)) * (1 + TOLERANCE);
+                double actual = Double.parseDouble(result.getProperty(key));
+                if (actual > maximum) {
+                    regressions.add(String.format("%s %.2f ms is above %.2f ms", key, actual, maximum));
+                }
+            }
+        }
+        assertTrue(regressions.isEmpty(), "regressed past the baseline: " + regressions);
+    }
+
+    /**
+     * Starts one request every {@code 1 / RATE} seconds for the given duration
+     * and waits for the stragglers. The schedule never waits for responses, and
+     * when the dispatcher itself falls behind it catches up at once while
+     * keeping each request's scheduled time. Returns how many completed.
+     */
+    private long drive(Duration duration, boolean record) throws Exception {
+        long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long start = System.nanoTime();
+        long requests = duration.toNanos() / interval;
+        AtomicLong completed = new AtomicLong();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>((int) requests);
+
+        for (long i = 0; i < requests; i++) {
+            long scheduled = start + i * interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+            Long deletable = operation == Operation.DELETE ? deletableIds.poll() : null;
+            if (operation == Operation.DELETE && deletable == null) {
+                operation = Operation.GET;
+            }
+            Operation sent = operation;
+            long sentAt = System.nanoTime();
+            inFlight.add(client.sendAsync(request(sent, i, deletable), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        if (error != null || !isExpected(sent, response.statusCode())) {
+                            String outcome = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                            failures.computeIfAbsent(sent.name().toLowerCase() + " " + outcome, key -> new AtomicLong())
+                                    .incrementAndGet();
+                        } else if (sent == Operation.CREATE) {
+                            deletableIds.add(createdId(response.body()));
+                        }
+                        if (record) {
+                            long latency = TimeUnit.NANOSECONDS.toMicros(done - scheduled);
+                            corrected.get(sent).recordValue(Math.min(latency, HIGHEST_TRACKABLE_MICROS));
+                            overall.recordValue(Math.min(latency, HIGHEST_TRACKABLE_MICROS));
+                            uncorrected.get(sent).recordValue(
+                                    Math.min(TimeUnit.NANOSECONDS.toMicros(done - sentAt), HIGHEST_TRACKABLE_MICROS));
+                            completed.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).handle((ignored, error) -> null)
+                .get(1, TimeUnit.MINUTES);
+        return completed.get();
+    }
+
+    private HttpRequest request(Operation operation, long sequence, Long deletable) throws IOException {
+        // Stable ids are in seed order, so the index also names the seeded email
+        int index = ThreadLocalRandom.current().nextInt(stableIds.size());
+        Long id = stableIds.get(index);
+        switch (operation) {
+            case LIST:
+                return HttpRequest.newBuilder(URI.create(base + "?limit=50")).GET().build();
+            case CREATE:
+                return json(HttpRequest.newBuilder(URI.create(base)), "POST", new Person("Load", "Test" + sequence,
+                        "load" + sequence + "-" + System.nanoTime() + "@email.com", "Rua dos testes, " + sequence, "Female"));
+            case UPDATE:
+                return json(HttpRequest.newBuilder(URI.create(base)), "PUT", new Person(id, "First" + index, "Updated" + sequence,
+                        "person" + index + "@email.com", "Rua dos sonhos, " + index, "Male"));
+            case DELETE:
+                return HttpRequest.newBuilder(URI.create(base + "/" + deletable)).DELETE().build();
+            default:
+                return HttpRequest.newBuilder(URI.create(base + "/" + id)).GET().build();
+        }
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String method, Person person) throws IOException {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(person)))
+                .build();
+    }
+
+    // Two updates racing on one person legitimately end in 412 for the loser
+    private static boolean isExpected(Operation operation, int status) {
+        return switch (operation) {
+            case CREATE -> status == 201;
+            case DELETE -> status == 204;
+            case UPDATE -> status == 200 || status == 412;
+            default -> status == 200;
+        };
+    }
+
+    private Long createdId(byte[] body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Prints the latency table, writes each histogram and this run's baseline
+     * to {@code target/load}, and returns that baseline.
+     */
+    private Properties report(double throughput) throws IOException {
+        Files.createDirectories(OUTPUT);
+        Properties result = new Properties();
+        result.setProperty("rate", String.valueOf(RATE));
+        result.setProperty("mix", MIX);
+        result.setProperty("throughput", String.format("%.1f", throughput));
+        result.setProperty("p99.ms", millis(overall.getValueAtPercentile(99)));
+
+        System.out.printf("%n%d req/s scheduled, %.1f req/s completed over %ds%n", RATE, throughput, DURATION.toSeconds());
+        System.out.printf("%-8s %8s %10s %10s %10s %10s %16s%n",
+                "op", "count", "p50 (ms)", "p99 (ms)", "p99.9 (ms)", "max (ms)", "p99 uncorr. (ms)");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = corrected.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            String name = operation.name().toLowerCase();
+            System.out.printf("%-8s %8d %10s %10s %10s %10s %16s%n", name, histogram.getTotalCount(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()),
+                    millis(uncorrected.get(operation).getValueAtPercentile(99)));
+            if (histogram.getTotalCount() >= GATED_MIN_COUNT) {
+                result.setProperty("p99.ms." + name, millis(histogram.getValueAtPercentile(99)));
+            }
+            write(histogram, name + ".hgrm");
+        }
+        write(overall, "all.hgrm");
+        try (OutputStream out = Files.newOutputStream(OUTPUT.resolve("baseline.properties"))) {
+            result.store(out, "PersonLoadBenchmark baseline; copy to src/test/resources" + BASELINE + " to adopt it");
+        }
+        return result;
+    }
+
+    private static void write(Histogram histogram, String file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(OUTPUT.resolve(file)))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        try (InputStream in = PersonLoadBenchmark.class.getResourceAsStream(BASELINE)) {
+            if (in == null) {
+                return null;
+            }
+            Properties baseline = new Properties();
+            baseline.load(in);
+            return baseline;
+        }
+    }
+
+    /**
+     * Expands "get:60,list:10" into a lookup table, so drawing an operation is
+     * a single random index.
+     */
+    private static Operation[] parseMix(String mix) {
+        List<Operation> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(parts[1].trim()); i++) {
+                table.add(operation);
+            }
+        }
+        return table.toArray(Operation[]::new);
+    }
+}
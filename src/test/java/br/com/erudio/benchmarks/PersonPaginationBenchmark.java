@@ -0,0 +1,140 @@
+package br.com.erudio.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares keyset paging ({@code WHERE id > ? ORDER BY id LIMIT ?}) with
+ * OFFSET paging on an embedded H2 table in MySQL mode, with the schema built
+ * by the Flyway migrations. Run with {@code mvn test -Pbenchmark}; the row
+ * count can be changed with {@code -Dbenchmark.rows}. Rows are committed up front so reads do not pay for scanning uncommitted versions.
+ * Note that H2 skips OFFSET rows in memory far more cheaply than MySQL, so the
+ * gap here understates the one seen in production; the point to check is that
+ * the keyset column stays flat as the depth grows.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PersonPaginationBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private PersonRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    private long firstId;
+
+    @BeforeEach
+    void setup() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[] { i + 1L, "First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male" });
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+        firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM person", Long.class);
+    }
+
+    @Test
+    @DisplayName("Benchmark keyset paging against OFFSET paging at increasing depths")
+    void benchmarkKeysetAgainstOffsetPaging() {
+
+        // Warm both paths before the first measurement so neither pays for JIT compilation
+        measure(() -> keysetPage(firstId + ROWS / 2), () -> offsetPage(ROWS / 2));
+
+        System.out.printf("%n%-10s %15s %15s%n", "depth", "keyset (us)", "offset (us)");
+
+        for (int depth : new int[] { 0, ROWS / 4, ROWS / 2, ROWS - PAGE_SIZE }) {
+            long after = firstId + depth - 1;
+            double[] micros = measure(() -> keysetPage(after), () -> offsetPage(depth));
+            System.out.printf("%-10d %15.1f %15.1f%n", depth, micros[0], micros[1]);
+        }
+    }
+
+    private long keysetPage(long after) {
+        List<PersonView> page = repository.findPageAfter(after, PAGE_SIZE);
+        assertEquals(PAGE_SIZE, page.size());
+        return page.get(0).id();
+    }
+
+    private long offsetPage(int offset) {
+        List<PersonView> page = entityManager.createQuery("SELECT new br.com.erudio.model.PersonView("
+                + "p.id, p.firstName, p.lastName, p.address, p.gender, p.email, p.version) FROM Person p ORDER BY p.id", PersonView.class)
+                .setFirstResult(offset)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+        assertEquals(PAGE_SIZE, page.size());
+        return page.get(0).id();
+    }
+
+    /**
+     * Average microseconds per call of each path. Calls are interleaved so both
+     * paths see the same JIT and GC conditions, and each call runs in its own
+     * read-only transaction and persistence context.
+     */
+    private double[] measure(LongSupplier keyset, LongSupplier offset) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOnly.execute(status -> keyset.getAsLong());
+            readOnly.execute(status -> offset.getAsLong());
+        }
+        long keysetNanos = 0;
+        long offsetNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            readOnly.execute(status -> keyset.getAsLong());
+            long middle = System.nanoTime();
+            readOnly.execute(status -> offset.getAsLong());
+            offsetNanos += System.nanoTime() - middle;
+            keysetNanos += middle - start;
+        }
+        return new double[] { keysetNanos / 1_000.0 / ITERATIONS, offsetNanos / 1_000.0 / ITERATIONS };
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO person (id, first_name, last_name, email, address, gender) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
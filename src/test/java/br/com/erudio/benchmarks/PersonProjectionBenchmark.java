@@ -0,0 +1,110 @@
+package br.com.erudio.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.erudio.repositories.PersonRepository;
+
+/**
+ * Compares reading the whole table as managed {@code Person} entities with
+ * reading it as {@code PersonView} projections, reporting latency and bytes
+ * allocated per call. Entities are read in a read-write transaction, as the
+ * service did before, so Hibernate keeps a dirty-check snapshot per row. Run
+ * with {@code mvn test -Pbenchmark}; the row count can be changed with
+ * {@code -Dbenchmark.rows}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:projection;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PersonProjectionBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 30;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private PersonRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setup() {
+        transaction = new TransactionTemplate(transactionManager);
+
+        List<Object[]> batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[] { i + 1L, "First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male" });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO person (id, first_name, last_name, email, address, gender) VALUES (?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    @Test
+    @DisplayName("Benchmark entity reads against projection reads")
+    void benchmarkEntityAgainstProjectionReads() {
+
+        IntSupplier entities = () -> repository.findAll().size();
+        IntSupplier views = () -> repository.findAllViews().size();
+
+        measure(entities, views, WARMUP);
+        double[][] results = measure(entities, views, ITERATIONS);
+
+        System.out.printf("%n%-10s %12s %15s%n", "path", "ms/call", "KB alloc/call");
+        System.out.printf("%-10s %12.2f %15.1f%n", "entity", results[0][0], results[0][1]);
+        System.out.printf("%-10s %12.2f %15.1f%n", "view", results[1][0], results[1][1]);
+    }
+
+    /**
+     * Mean milliseconds and kilobytes allocated per call for each path. Calls
+     * are interleaved so both paths see the same JIT and GC conditions.
+     */
+    private double[][] measure(IntSupplier entities, IntSupplier views, int iterations) {
+        long[] nanos = new long[2];
+        long[] bytes = new long[2];
+        IntSupplier[] paths = { entities, views };
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < iterations; i++) {
+            for (int path = 0; path < paths.length; path++) {
+                IntSupplier call = paths[path];
+                long allocated = THREADS.getThreadAllocatedBytes(thread);
+                long start = System.nanoTime();
+                int rows = transaction.execute(status -> call.getAsInt());
+                nanos[path] += System.nanoTime() - start;
+                bytes[path] += THREADS.getThreadAllocatedBytes(thread) - allocated;
+                assertEquals(ROWS, rows);
+            }
+        }
+        return new double[][] {
+            { nanos[0] / 1e6 / iterations, bytes[0] / 1024.0 / iterations },
+            { nanos[1] / 1e6 / iterations, bytes[1] / 1024.0 / iterations } };
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.erudio.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Startup time of the packaged application, from launching the JVM to the
+ * first {@code UP} from {@code /actuator/health}, on an embedded H2 database.
+ * Each round starts it once plainly, once with the Spring AOT initializers and
+ * once with those and the AppCDS archive from the training start, in turn so
+ * that any noise on the machine hits all three alike. The run fails when the
+ * median of the last is more than {@code -Dstartup.max-ratio} of the plain
+ * one, which holds on any machine, or above {@code -Dstartup.max-millis} when
+ * that is given for the machine at hand.
+ * <p>
+ * Needs the bundle {@code mvn verify -Pfast-startup} builds, and is run by it;
+ * without one it is skipped. Logs of every start go to {@code target/startup}.
+ */
+@Tag("benchmark")
+class PersonStartupBenchmark {
+
+    private static final Path JAR = Path.of(System.getProperty("startup.jar", ""));
+    private static final Path ARCHIVE = Path.of(System.getProperty("startup.archive", ""));
+    private static final int ROUNDS = Integer.getInteger("startup.rounds", 5);
+    private static final double MAX_RATIO = Double.parseDouble(System.getProperty("startup.max-ratio", "0.8"));
+    private static final Long MAX_MILLIS = Long.getLong("startup.max-millis");
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("startup.timeout", 120));
+    private static final Path OUTPUT = Path.of("target", "startup");
+
+    private enum Mode { PLAIN, AOT, AOT_CDS }
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    @DisplayName("Start the packaged application with AOT and AppCDS within the threshold")
+    void startWithinThreshold() throws Exception {
+        Assumptions.assumeTrue(Files.isRegularFile(JAR) && Files.isRegularFile(ARCHIVE),
+                "no fast-startup bundle, build and run it with mvn verify -Pfast-startup");
+        Files.createDirectories(OUTPUT);
+
+        Map<Mode, List<Long>> millis = new EnumMap<>(Mode.class);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Mode mode : Mode.values()) {
+                millis.computeIfAbsent(mode, key -> new ArrayList<>()).add(start(mode, round));
+            }
+        }
+
+        long plain = median(millis.get(Mode.PLAIN));
+        long fastest = median(millis.get(Mode.AOT_CDS));
+        System.out.printf("%nStartup to healthy, median of %d on H2%n", ROUNDS);
+        for (Mode mode : Mode.values()) {
+            long median = median(millis.get(mode));
+            System.out.printf("%-8s %6d ms  %5.2fx  %s%n", mode, median, plain / (double) median, millis.get(mode));
+        }
+        assertTrue(fastest <= plain * MAX_RATIO, String.format(
+                "AOT with AppCDS started in %d ms, more than %.2f of the plain %d ms", fastest, MAX_RATIO, plain));
+        assertTrue(MAX_MILLIS == null || fastest <= MAX_MILLIS,
+                String.format("AOT with AppCDS started in %d ms, above the %d ms threshold", fastest, MAX_MILLIS));
+    }
+
+    private long start(Mode mode, int round) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode == Mode.AOT_CDS) {
+            command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+            // Refuse to start rather than silently measure a run the archive did not apply to
+            command.add("-Xshare:on");
+        }
+        if (mode != Mode.PLAIN) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", JAR.toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--person.datasource.pool-sizing.enabled=false"));
+
+        Path log = OUTPUT.resolve(mode.name().toLowerCase() + "-" + round + ".log");
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(5)).build();
+            while (System.nanoTime() - launched < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    fail(mode + " exited with " + process.exitValue() + " before it was healthy, see " + log);
+                }
+                try {
+                    HttpResponse<String> response = client.send(health, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() == 200 && response.body().contains("\"UP\"")) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            return fail(mode + " was not healthy within " + TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.erudio.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.erudio.Startup;
+
+/**
+ * Compares throughput and latency of {@code GET /person/{id}} when Tomcat
+ * serves requests on its platform worker pool and on virtual threads. Each
+ * mode boots the whole application on a random port with the person cache
+ * off, so every request blocks on JDBC, and is driven by a closed loop of
+ * {@code -Dbenchmark.concurrency} clients. Run with {@code mvn test -Pbenchmark}
+ * (add {@code -Pvirtual-threads} to see pinned carriers); the virtual run is
+ * skipped below Java 21. H2 answers far faster than a networked MySQL, which
+ * is where blocked platform workers really pile up, so point the run at one
+ * with {@code -Dbenchmark.url}, {@code -Dbenchmark.driver} and the usual
+ * {@code spring.datasource.username/password} properties.
+ */
+@Tag("benchmark")
+class PersonThreadingBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool", 20);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.seconds", 15));
+
+    @Test
+    @DisplayName("Benchmark platform request threads against virtual request threads")
+    void benchmarkPlatformAgainstVirtualThreads() throws Exception {
+
+        System.out.printf("%n%d clients, %d connections, %ds measured%n", CONCURRENCY, POOL_SIZE, DURATION.toSeconds());
+        System.out.printf("%-10s %12s %12s %12s%n", "threads", "req/s", "p50 (ms)", "p99 (ms)");
+
+        report("platform", run(false));
+        if (Runtime.version().feature() >= 21) {
+            report("virtual", run(true));
+        } else {
+            System.out.printf("%-10s skipped, needs Java 21 (running %s)%n", "virtual", Runtime.version());
+        }
+    }
+
+    private long[] run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Startup.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.cache.type=none",
+                "--spring.datasource.url=" + System.getProperty("benchmark.url",
+                        "jdbc:h2:mem:threading-" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"),
+                "--spring.datasource.driver-class-name=" + System.getProperty("benchmark.driver", "org.h2.Driver"),
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--logging.level.root=WARN")) {
+
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/person/";
+            URI[] uris = seed(context.getBean(JdbcTemplate.class)).stream()
+                    .map(id -> URI.create(base + id))
+                    .toArray(URI[]::new);
+            return drive(uris);
+        }
+    }
+
+    private List<Long> seed(JdbcTemplate jdbcTemplate) {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person", Long.class) == 0) {
+            List<Object[]> batch = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                batch.add(new Object[] { i + 1L, "First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male" });
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO person (id, first_name, last_name, email, address, gender) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM person ORDER BY id LIMIT " + ROWS, Long.class);
+    }
+
+    /**
+     * Runs every client until the deadline and returns the sorted latencies in
+     * nanoseconds of the requests started after the warmup.
+     */
+    private long[] drive(URI[] uris) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        AtomicLong failures = new AtomicLong();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long deadline = measureFrom + DURATION.toNanos();
+
+        Callable<long[]> clientLoop = () -> {
+            long[] latencies = new long[1024];
+            int count = 0;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long start;
+            while ((start = System.nanoTime()) < deadline) {
+                HttpRequest request = HttpRequest.newBuilder(uris[random.nextInt(uris.length)]).GET().build();
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                long latency = System.nanoTime() - start;
+                if (status != 200) {
+                    failures.incrementAndGet();
+                }
+                if (start >= measureFrom) {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = latency;
+                }
+            }
+            return Arrays.copyOf(latencies, count);
+        };
+
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<long[]>> results = new ArrayList<>(CONCURRENCY);
+            for (int i = 0; i < CONCURRENCY; i++) {
+                results.add(clients.submit(clientLoop));
+            }
+            long[] all = new long[0];
+            for (Future<long[]> result : results) {
+                long[] latencies = result.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            assertEquals(0, failures.get(), "requests answered with a status other than 200");
+            Arrays.sort(all);
+            return all;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void report(String mode, long[] latencies) {
+        System.out.printf("%-10s %12.0f %12.2f %12.2f%n", mode,
+                latencies.length / (double) DURATION.toSeconds(),
+                percentile(latencies, 0.50) / 1_000_000.0,
+                percentile(latencies, 0.99) / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
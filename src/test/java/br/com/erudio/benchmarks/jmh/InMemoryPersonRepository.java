@@ -0,0 +1,86 @@
+package br.com.erudio.benchmarks.jmh;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonRepository;
+
+/**
+ * Map-backed stand-in for {@link PersonRepository} covering the calls made by
+ * the benchmarked service paths, so the numbers show the cost of the service
+ * itself rather than of JPA, JDBC or a mock recording every invocation. Any
+ * other repository method throws.
+ */
+final class InMemoryPersonRepository implements InvocationHandler {
+
+    private final NavigableMap<Long, Person> people = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> emails = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private InMemoryPersonRepository() {}
+
+    static PersonRepository create() {
+        return (PersonRepository) Proxy.newProxyInstance(PersonRepository.class.getClassLoader(),
+                new Class<?>[] { PersonRepository.class }, new InMemoryPersonRepository());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "save", "saveAndFlush":
+                return save((Person) args[0]);
+            case "findById":
+                return Optional.ofNullable(people.get(args[0]));
+            case "findViewById":
+                return Optional.ofNullable(people.get(args[0])).map(PersonView::of);
+            case "findVersionById":
+                return Optional.ofNullable(people.get(args[0])).map(Person::getVersion);
+            case "findPageAfter":
+                return people.tailMap((Long) args[0], false).values().stream()
+                        .limit((Integer) args[1])
+                        .map(PersonView::of)
+                        .toList();
+            case "existsByEmail":
+                return emails.containsKey(args[0]);
+            case "purge":
+                return remove((Long) args[0]);
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryPersonRepository";
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private Person save(Person person) {
+        if (person.getId() == null) {
+            person.setId(sequence.incrementAndGet());
+        } else {
+            person.setVersion(person.getVersion() + 1);
+        }
+        people.put(person.getId(), person);
+        emails.put(person.getEmail(), person.getId());
+        return person;
+    }
+
+    private int remove(Long id) {
+        Person removed = people.remove(id);
+        if (removed == null) {
+            return 0;
+        }
+        emails.remove(removed.getEmail());
+        return 1;
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.erudio.benchmarks.jmh;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.erudio.model.Person;
+
+/**
+ * {@code Person.hashCode()} and {@code equals()}, which walk every mutable
+ * field, on their own and behind a {@code HashSet} lookup. The unequal copy
+ * differs only in {@code lastName}, the last field {@code equals()} compares.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonEqualityJmh {
+
+    private static final int SET_SIZE = 1000;
+
+    private Person person;
+    private Person equalCopy;
+    private Person lastFieldDiffers;
+    private Set<Person> people;
+
+    @Setup
+    public void setup() {
+        person = new Person(1L, "Leandro", "Costa", "leandro@email.com", "Uberlândia - Minas Gerais", "Male");
+        equalCopy = new Person(1L, "Leandro", "Costa", "leandro@email.com", "Uberlândia - Minas Gerais", "Male");
+        lastFieldDiffers = new Person(1L, "Leandro", "Souza", "leandro@email.com", "Uberlândia - Minas Gerais", "Male");
+
+        people = new HashSet<>();
+        for (int i = 0; i < SET_SIZE; i++) {
+            people.add(new Person(i + 2L, "First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male"));
+        }
+        people.add(person);
+    }
+
+    @Benchmark
+    public int hashPerson() {
+        return person.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsEqualCopy() {
+        return person.equals(equalCopy);
+    }
+
+    @Benchmark
+    public boolean equalsLastFieldDiffers() {
+        return person.equals(lastFieldDiffers);
+    }
+
+    @Benchmark
+    public boolean hashSetContains() {
+        return people.contains(equalCopy);
+    }
+}
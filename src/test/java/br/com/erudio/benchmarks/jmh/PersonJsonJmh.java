@@ -0,0 +1,106 @@
+package br.com.erudio.benchmarks.jmh;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonJson;
+import br.com.erudio.model.PersonView;
+
+/**
+ * Jackson round trips of a single {@code Person} and of a list of them, with
+ * an {@code ObjectMapper} configured like the one Spring MVC uses, through
+ * either the reflective bean mapping or the {@link PersonJson} streaming one.
+ * {@code serializeViews} is the body of {@code GET /person}, and
+ * {@code deserializePerson} plus {@code serializePerson} the work of
+ * {@code POST /person}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonJsonJmh {
+
+    @Param({ "10", "1000" })
+    public int size;
+
+    @Param({ "bean", "streaming" })
+    public String mapping;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+
+    private Person person;
+    private List<Person> people;
+    private List<PersonView> views;
+    private byte[] personJson;
+    private byte[] peopleJson;
+
+    @Setup
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (mapping.equals("streaming")) {
+            builder.modulesToInstall(new SimpleModule()
+                    .addSerializer(new PersonJson.Serializer())
+                    .addSerializer(new PersonJson.ViewSerializer())
+                    .addDeserializer(Person.class, new PersonJson.Deserializer()));
+        }
+        objectMapper = builder.build();
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, Person.class);
+
+        people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(i + 1L, "First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male"));
+        }
+        views = people.stream().map(PersonView::of).toList();
+        person = people.get(0);
+        personJson = objectMapper.writeValueAsBytes(person);
+        peopleJson = objectMapper.writeValueAsBytes(people);
+    }
+
+    @Benchmark
+    public byte[] serializePerson() throws IOException {
+        return objectMapper.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public Person deserializePerson() throws IOException {
+        return objectMapper.readValue(personJson, Person.class);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return objectMapper.writeValueAsBytes(people);
+    }
+
+    @Benchmark
+    public byte[] serializeViews() throws IOException {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public List<Person> deserializeList() throws IOException {
+        return objectMapper.readValue(peopleJson, listType);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.erudio.benchmarks.jmh;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import br.com.erudio.Startup;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.services.PersonServices;
+
+/**
+ * {@code GET /person/{id}} through the whole application on H2, for ids that
+ * exist and for ids that do not. MockMvc drives the DispatcherServlet
+ * directly, so sockets and Tomcat stay out and what separates the two is the
+ * miss path: the lookup, the not-found exception and the error response.
+ * Every miss asks for a different id, as a scanner would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 30, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonMissJmh {
+
+    private static final int ROWS = 1000;
+    private static final long FIRST_MISSING_ID = 1_000_000_000L;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private final List<Long> ids = new ArrayList<>(ROWS);
+    private int hit;
+    private long miss;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Startup.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:miss;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--logging.level.root=WARN");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        List<Person> people = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            people.add(new Person("First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male"));
+        }
+        for (PersonBatchResult.Item item : context.getBean(PersonServices.class).createAll(people).getItems()) {
+            ids.add(item.getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int existingPerson() throws Exception {
+        hit = (hit + 1) % ROWS;
+        return mockMvc.perform(get("/person/{id}", ids.get(hit))).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int missingPerson() throws Exception {
+        return mockMvc.perform(get("/person/{id}", FIRST_MISSING_ID + miss++)).andReturn().getResponse().getStatus();
+    }
+}
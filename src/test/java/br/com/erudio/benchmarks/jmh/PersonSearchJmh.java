@@ -0,0 +1,69 @@
+package br.com.erudio.benchmarks.jmh;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.erudio.services.PersonSearchIndex;
+
+/**
+ * {@link PersonSearchIndex#search} over generated people drawn from a small
+ * pool of names, so every name is shared by thousands of rows as in a real
+ * table: an exact name, a two letter prefix and a name with a typo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersonSearchJmh {
+
+    private static final String[] FIRST_NAMES = { "Edielson", "Leandro", "Maria", "Joao", "Ana", "Pedro", "Paulo",
+            "Lucas", "Juliana", "Fernanda", "Rafael", "Gabriel", "Beatriz", "Carla", "Marcos", "Patricia" };
+    private static final String[] LAST_NAMES = { "Assis", "Silva", "Souza", "Costa", "Oliveira", "Santos", "Pereira",
+            "Lima", "Gomes", "Ribeiro", "Almeida", "Carvalho" };
+
+    @Param({ "100000", "1000000" })
+    private int people;
+
+    private PersonSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new PersonSearchIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= people; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            index.put(id, first, last, first.toLowerCase() + "." + last.toLowerCase() + id + "@email.com");
+        }
+    }
+
+    @Benchmark
+    public List<Long> exactName() {
+        return index.search("Leandro Costa", 10);
+    }
+
+    @Benchmark
+    public List<Long> prefix() {
+        return index.search("Ed", 10);
+    }
+
+    @Benchmark
+    public List<Long> typo() {
+        return index.search("Leandor", 10);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.erudio.benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonPage;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.PersonServices;
+
+/**
+ * {@code PersonServices} operations against {@link InMemoryPersonRepository},
+ * without the Spring proxies, so caching and transactions are left out and
+ * what remains is the service's own work. Creates are paired with a delete
+ * to keep the repository at a steady size across iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonServicesJmh {
+
+    private static final int ROWS = 1000;
+    private static final int PAGE_SIZE = 20;
+
+    private PersonServices service;
+    private String cursor;
+    private long next;
+    private long created;
+
+    @Setup
+    public void setup() {
+        // Console logging would dominate every call and flood the fork's output
+        Logger.getLogger(PersonServices.class.getName()).setLevel(Level.WARNING);
+
+        PersonRepository repository = InMemoryPersonRepository.create();
+        service = new PersonServices();
+        ReflectionTestUtils.setField(service, "repository", repository);
+
+        for (int i = 0; i < ROWS; i++) {
+            repository.save(new Person("First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male"));
+        }
+        cursor = service.findPage(null, ROWS / 2).getNext();
+    }
+
+    @Benchmark
+    public PersonView findById() {
+        return service.findById(nextId());
+    }
+
+    @Benchmark
+    public PersonPage findPage() {
+        return service.findPage(cursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Person update() {
+        return service.update(new Person(nextId(), "Maria", "Souza", "maria" + next + "@email.com", "Rua das flores, 10", "Female"));
+    }
+
+    @Benchmark
+    public Long createAndDelete() {
+        Person person = service.create(new Person("Carlos", "Oliveira", "carlos" + created++ + "@email.com", "Rua dos sonhos, 1000", "Male"));
+        service.delete(person.getId());
+        return person.getId();
+    }
+
+    private long nextId() {
+        next = next % ROWS + 1;
+        return next;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.erudio.benchmarks.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonView;
+
+/**
+ * Encodes the {@code GET /person} body, a list of people, the way the server
+ * puts it on the wire: each format the controller negotiates, then each
+ * coding the compression filter can pick, at its default zstd level. The
+ * bytes each combination ends up as are printed once per trial, before the
+ * timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonWireFormatJmh {
+
+    @Param({ "json", "cbor", "smile" })
+    public String format;
+
+    @Param({ "identity", "gzip", "zstd" })
+    public String coding;
+
+    @Param({ "1000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<PersonView> people;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(PersonView.of(new Person(i + 1L, "First" + i, "Last" + i, "person" + i + "@email.com",
+                    "Rua dos sonhos, " + i, i % 2 == 0 ? "Male" : "Female")));
+        }
+        System.out.printf("%n%s/%s, %d people: %d bytes on the wire%n", format, coding, size, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 128);
+        try (OutputStream out = switch (coding) {
+            case "gzip" -> new GZIPOutputStream(bytes, true);
+            case "zstd" -> new ZstdOutputStream(bytes, 3);
+            default -> bytes;
+        }) {
+            objectMapper.writeValue(out, people);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.erudio.integrationstests.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.erudio.integrationstests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.model.Person;
+import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.PersonServices;
+import jakarta.persistence.EntityManagerFactory;
+
+@Order(7)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("second-level-cache")
+class PersonRepositoryCacheIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private PersonRepository repository;
+
+    @Autowired
+    private PersonServices service;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Person person;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        person = repository.save(new Person("Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("JUnit integration test given cached person when repeated lookups should run no SQL statement")
+    void integrationTestGivenCachedPerson_whenRepeatedLookups_shouldRunNoSqlStatement() {
+
+        // Given / Arrange
+        lookUpEveryWay();
+        statistics.clear();
+
+        // When / Act
+        lookUpEveryWay();
+
+        // Then / Assert
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(5, statistics.getQueryCacheHitCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("JUnit integration test given cached lookups when person is patched should read the new values")
+    void integrationTestGivenCachedLookups_whenPersonIsPatched_shouldReadTheNewValues() {
+
+        // Given / Arrange
+        lookUpEveryWay();
+
+        // When / Act
+        service.patch(person.getId(), new Person(null, "Souza", null, null, null), null);
+
+        // Then / Assert
+        assertEquals("Souza", repository.findById(person.getId()).get().getLastName());
+        assertEquals("Souza", repository.findByEmail("edielson@email.com").get().getLastName());
+        assertNull(repository.findByJPQL("Edielson", "Assis"));
+        assertNull(repository.findByNativeSQL("Edielson", "Assis"));
+    }
+
+    private void lookUpEveryWay() {
+        assertEquals(person.getId(), repository.findById(person.getId()).get().getId());
+        assertEquals(person.getId(), repository.findByEmail("edielson@email.com").get().getId());
+        assertEquals(person.getId(), repository.findByJPQL("Edielson", "Assis").getId());
+        assertEquals(person.getId(), repository.findByJPQLNamedParameters("Edielson", "Assis").getId());
+        assertEquals(person.getId(), repository.findByNativeSQL("Edielson", "Assis").getId());
+        assertEquals(person.getId(), repository.findByNativeSQLWithNamedParameters("Edielson", "Assis").getId());
+    }
+}
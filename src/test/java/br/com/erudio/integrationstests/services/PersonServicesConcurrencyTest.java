@@ -0,0 +1,89 @@
+package br.com.erudio.integrationstests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import br.com.erudio.exceptions.ConflictException;
+import br.com.erudio.integrationstests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.model.Person;
+import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.PersonServices;
+
+@Order(6)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "person.email-filter.enabled=true")
+class PersonServicesConcurrencyTest extends AbstractIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+    private static final int DISTINCT_EMAILS = 8;
+
+    @Autowired
+    private PersonServices service;
+
+    @Autowired
+    private PersonRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("JUnit integration test given parallel creates with duplicate emails should create each email exactly once")
+    void integrationTestGivenParallelCreatesWithDuplicateEmails_shouldCreateEachEmailExactlyOnce() throws Exception {
+
+        // Given / Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    String email = "person" + ((thread + i) % DISTINCT_EMAILS) + "@email.com";
+                    try {
+                        service.create(new Person("Edielson", "Assis", email, "Rua dos sonhos, 1000", "Male"));
+                        created.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // When / Act
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(); // rethrows anything other than a conflict
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then / Assert
+        assertEquals(DISTINCT_EMAILS, created.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - DISTINCT_EMAILS, conflicts.get());
+        assertEquals(DISTINCT_EMAILS, repository.count());
+    }
+}
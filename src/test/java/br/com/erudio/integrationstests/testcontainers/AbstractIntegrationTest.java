@@ -16,7 +16,9 @@ public class AbstractIntegrationTest {
 
     static class initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
 
-        static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0.33");
+        static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0.33")
+                .withUrlParam("useCursorFetch", "true")
+                .withUrlParam("rewriteBatchedStatements", "true");
 
         private static void startContainers() {
             Startables.deepStart(Stream.of(mysql)).join();
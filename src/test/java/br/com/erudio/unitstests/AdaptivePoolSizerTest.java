@@ -0,0 +1,114 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.erudio.config.AdaptivePoolSizer;
+import br.com.erudio.config.PoolTelemetry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptivePoolSizerTest {
+
+    private static final String POOL = "sizing";
+
+    private MeterRegistry registry;
+    private PoolTelemetry telemetry;
+    private HikariDataSource pool;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", registry);
+        telemetry = new PoolTelemetry(beans.getBeanProvider(MeterRegistry.class));
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:sizing");
+        pool.setPoolName(POOL);
+        pool.setMaximumPoolSize(2);
+        pool.setMetricsTrackerFactory(telemetry);
+        pool.getConnection().close();
+        telemetry.drain(POOL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given callers waiting on a full pool when tick then grow the pool")
+    void testGivenCallersWaitingOnAFullPool_whenTick_thenGrowThePool() throws Exception {
+
+        // Given / Arrange
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(List.of(pool), telemetry, registry, 2, 4, 0.1, 3);
+        CountDownLatch borrowed = new CountDownLatch(2);
+        ExecutorService holders = Executors.newFixedThreadPool(2);
+        List<Future<?>> holds = List.of(holders.submit(() -> hold(borrowed)), holders.submit(() -> hold(borrowed)));
+        borrowed.await();
+        pool.getConnection().close();
+        for (Future<?> hold : holds) {
+            hold.get();
+        }
+        holders.shutdown();
+
+        // When / Act
+        sizer.tick();
+
+        // Then / Assert
+        assertEquals(3, pool.getMaximumPoolSize());
+        AdaptivePoolSizer.Decision decision = sizer.report().decisions().get(0);
+        assertEquals("waits", decision.reason());
+        assertTrue(decision.meanWaitMillis() > 0.1 * decision.meanUsageMillis());
+        assertEquals(1, registry.get(AdaptivePoolSizer.RESIZE_COUNTER).tags("pool", POOL, "direction", "grow")
+                .counter().count());
+        assertEquals(4, registry.get(PoolTelemetry.USAGE_TIMER).tags("pool", POOL, "caller", "none")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given idle pool when quiet ticks then shrink it down to the minimum")
+    void testGivenIdlePool_whenQuietTicks_thenShrinkItDownToTheMinimum() {
+
+        // Given / Arrange
+        pool.setMaximumPoolSize(3);
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(List.of(pool), telemetry, registry, 2, 4, 0.5, 2);
+
+        // When / Act
+        sizer.tick();
+        int afterOneTick = pool.getMaximumPoolSize();
+        for (int i = 0; i < 4; i++) {
+            sizer.tick();
+        }
+
+        // Then / Assert
+        assertEquals(3, afterOneTick);
+        assertEquals(2, pool.getMaximumPoolSize());
+        assertEquals(List.of("idle"), sizer.report().decisions().stream().map(AdaptivePoolSizer.Decision::reason)
+                .toList());
+    }
+
+    private Void hold(CountDownLatch borrowed) throws Exception {
+        try (Connection connection = pool.getConnection()) {
+            borrowed.countDown();
+            Thread.sleep(200);
+        }
+        return null;
+    }
+}
@@ -1,20 +1,33 @@
 package br.com.erudio.unitstests;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,16 +36,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 
+import br.com.erudio.controllers.PersonController;
+import br.com.erudio.exceptions.ConflictException;
+import br.com.erudio.exceptions.PreconditionFailedException;
 import br.com.erudio.exceptions.ResourceNotFoundException;
 import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.model.PersonFilter;
+import br.com.erudio.model.PersonPage;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.model.PersonWriteStatus;
 import br.com.erudio.services.PersonServices;
+import br.com.erudio.services.PersonWriteBehind;
 
 @Order(3)
 @WebMvcTest
@@ -47,6 +74,9 @@ class PersonControllerTest {
     @MockBean
     private PersonServices service;
 
+    @MockBean
+    private PersonWriteBehind writeBehind;
+
     private Person person;
 
     private static final Long PERSON_ID = 1L;
@@ -74,6 +104,70 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$.email", is(person.getEmail())));
     }
 
+    @Test
+    @DisplayName("JUnit test for Given client preferring async when create person then return accepted with tracking id")
+    void testGivenClientPreferringAsync_whenCreatePerson_thenReturnAcceptedWithTrackingId() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(writeBehind.submit(any(Person.class))).willReturn(PersonWriteStatus.queued("abc"));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(post("/person").contentType(MediaType.APPLICATION_JSON)
+                .header("Prefer", "respond-async").content(objectMapper.writeValueAsString(person)));
+
+        // Then / Assert
+        response.andDo(print()).andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/person/queued/abc"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.trackingId", is("abc")))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+        verify(service, never()).create(any(Person.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given stored queued create when find queued then return status and person location")
+    void testGivenStoredQueuedCreate_whenFindQueued_thenReturnStatusAndPersonLocation() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(writeBehind.status("abc")).willReturn(
+                new PersonWriteStatus("abc", PersonWriteStatus.State.CREATED, PERSON_ID, null));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person/queued/abc"));
+
+        // Then / Assert
+        response.andDo(print()).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/person/1"))
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.personId", is(1)));
+        mockMvc.perform(get("/person/queued/missing")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given list of people when createAll then return per item result")
+    void testGivenListOfPeople_whenCreateAll_thenReturnPerItemResult() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        Person p1 = new Person("Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
+
+        PersonBatchResult result = new PersonBatchResult(2);
+        result.created(0, 1L);
+        result.rejected(1, "Email alredy registered");
+
+        given(service.createAll(anyList())).willReturn(result);
+
+        // When / Act
+        ResultActions response = mockMvc.perform(post("/person/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(p1, person))));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[1].error", is("Email alredy registered")));
+    }
+
     @Test
     @DisplayName("JUnit test for Given list of people when findAll then return people list")
     void testGivenListOfPeople_whenFindAllPeople_thenReturnPeopleList() throws JsonProcessingException, Exception {
@@ -82,8 +176,8 @@ class PersonControllerTest {
         Person p1 = new Person("Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
         Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
 
-        List<Person> list = new ArrayList<>();
-        list.addAll(Arrays.asList(p1, p2));
+        List<PersonView> list = new ArrayList<>();
+        list.addAll(Arrays.asList(PersonView.of(p1), PersonView.of(p2)));
 
         given(service.findAll()).willReturn(list);
 
@@ -95,12 +189,142 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$.size()", is(list.size())));
     }
 
+    @Test
+    @DisplayName("JUnit test for Given list of people when findAll accepting CBOR then return CBOR people list")
+    void testGivenListOfPeople_whenFindAllAcceptingCbor_thenReturnCborPeopleList() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        Person p1 = new Person(1L, "Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
+        given(service.findAll()).willReturn(List.of(PersonView.of(p1)));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person").accept(MediaType.APPLICATION_CBOR));
+
+        // Then / Assert
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<PersonView> people = new CBORMapper().readValue(body, new TypeReference<List<PersonView>>() {});
+        assertEquals(List.of(PersonView.of(p1)), people);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given Smile person when create then read it like JSON")
+    void testGivenSmilePerson_whenCreate_thenReadItLikeJson() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.create(any(Person.class))).willAnswer((invocation) -> invocation.getArgument(0));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(post("/person")
+                .contentType(PersonController.APPLICATION_SMILE_VALUE)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new SmileMapper().writeValueAsBytes(person)));
+
+        // Then / Assert
+        response.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email", is(person.getEmail())));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given limit and cursor when findAll then return people page")
+    void testGivenLimitAndCursor_whenFindAllPeople_thenReturnPeoplePage() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        Person p1 = new Person("Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
+
+        given(service.findPage(new PersonFilter(null, null, null, null), "MQ", 1)).willReturn(new PersonPage(List.of(PersonView.of(p1)), "Mg"));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person").param("limit", "1").param("after", "MQ"));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.next", is("Mg")));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given filter without limit when findAll then return first filtered page")
+    void testGivenFilterWithoutLimit_whenFindAllPeople_thenReturnFirstFilteredPage() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        PersonFilter filter = new PersonFilter(null, "Assis", "Male", null);
+        given(service.findPage(filter, null, PersonServices.DEFAULT_PAGE_SIZE))
+                .willReturn(new PersonPage(List.of(PersonView.of(person)), null));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person").param("lastName", "Assis").param("gender", "Male"));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.content[0].lastName", is("Assis")));
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given filter and next cursor without limit when findAll then return the next filtered page")
+    void testGivenFilterAndNextCursorWithoutLimit_whenFindAllPeople_thenReturnTheNextFilteredPage() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        PersonFilter filter = new PersonFilter(null, "Assis", "Male", null);
+        given(service.findPage(filter, "MTAw", PersonServices.DEFAULT_PAGE_SIZE))
+                .willReturn(new PersonPage(List.of(PersonView.of(person)), null));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person").param("lastName", "Assis").param("gender", "Male")
+                .param("after", "MTAw"));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.next").doesNotExist());
+        verify(service, never()).findPage(filter, null, PersonServices.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given people when export then stream ndjson")
+    void testGivenPeople_whenExport_thenStreamNdjson() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        String line = objectMapper.writeValueAsString(person) + "\n";
+        willAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(line.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(service).exportAll(any(OutputStream.class));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person/export"));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given query when search then return ranked ids")
+    void testGivenQuery_whenSearch_thenReturnRankedIds() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.search("edi", 5)).willReturn(List.of(2L, 1L));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person/search").param("q", "edi").param("limit", "5"));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0]", is(2)));
+    }
+
     @Test
     @DisplayName("JUnit test for Given personId object when findById then return person object")
     void testGivenPersonId_whenFindById_thenReturnPersonObject() throws JsonProcessingException, Exception {
 
         // Given / Arrange
-        given(service.findById(PERSON_ID)).willReturn(person);
+        given(service.lookup(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
 
         // When / Act
         ResultActions response = mockMvc.perform(get("/person/{id}", PERSON_ID));
@@ -117,13 +341,115 @@ class PersonControllerTest {
     void testGivenInvalidPersonId_whenFindById_thenReturnNotFound() throws JsonProcessingException, Exception {
 
         // Given / Arrange
-        given(service.findById(PERSON_ID)).willThrow(ResourceNotFoundException.class);
+        given(service.lookup(PERSON_ID)).willReturn(Optional.empty());
 
         // When / Act
         ResultActions response = mockMvc.perform(get("/person/{id}", PERSON_ID));
 
         // Then / Assert
-        response.andExpect(status().isNotFound()).andDo(print());
+        response.andExpect(status().isNotFound()).andDo(print())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given unexistent person when delete then return problem detail")
+    void testGivenUnexistentPerson_whenDelete_thenReturnProblemDetail() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        willThrow(new ResourceNotFoundException("No records found for this ID!")).given(service).delete(PERSON_ID);
+
+        // When / Act
+        ResultActions response = mockMvc.perform(delete("/person/{id}", PERSON_ID));
+
+        // Then / Assert
+        response.andExpect(status().isNotFound()).andDo(print())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status", is(404)))
+                .andExpect(jsonPath("$.detail", is("No records found for this ID!")));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given current ETag when findById then return not modified without body")
+    void testGivenCurrentETag_whenFindById_thenReturnNotModifiedWithoutBody() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.findVersion(PERSON_ID)).willReturn(3L);
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person/{id}", PERSON_ID).header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // Then / Assert
+        response.andExpect(status().isNotModified()).andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+        verify(service, never()).findById(PERSON_ID);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given stale ETag when findById then return person with current ETag")
+    void testGivenStaleETag_whenFindById_thenReturnPersonWithCurrentETag() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        person.setVersion(4L);
+        given(service.findVersion(PERSON_ID)).willReturn(4L);
+        given(service.lookup(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person/{id}", PERSON_ID).header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given unchanged collection when findAll then return not modified")
+    void testGivenUnchangedCollection_whenFindAll_thenReturnNotModified() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.findCollectionVersion()).willReturn("3-12-21-5");
+
+        // When / Act
+        ResultActions response = mockMvc.perform(get("/person").header(HttpHeaders.IF_NONE_MATCH, "W/\"3-12-21-5\""));
+
+        // Then / Assert
+        response.andExpect(status().isNotModified()).andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3-12-21-5\""));
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given stale If-Match when update then return precondition failed")
+    void testGivenStaleIfMatch_whenUpdate_thenReturnPreconditionFailed() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.update(any(Person.class), eq(3L))).willThrow(new PreconditionFailedException("Person was changed by another request!"));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(put("/person").contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content(objectMapper.writeValueAsString(person)));
+
+        // Then / Assert
+        response.andExpect(status().isPreconditionFailed()).andDo(print());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given If-Match of a compressed response when update then compare its version")
+    void testGivenIfMatchOfACompressedResponse_whenUpdate_thenCompareItsVersion() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.update(any(Person.class), eq(3L))).willAnswer((invocation) -> invocation.getArgument(0));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(put("/person").contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3-zstd\"")
+                .content(objectMapper.writeValueAsString(person)));
+
+        // Then / Assert
+        response.andExpect(status().isOk()).andDo(print());
+        verify(service).update(any(Person.class), eq(3L));
     }
 
     @Test
@@ -131,8 +457,8 @@ class PersonControllerTest {
     void testGivenUpdatePerson_whenUpdate_thenReturnUpdatedPersonObject() throws JsonProcessingException, Exception {
 
         // Given / Arrange
-        given(service.findById(PERSON_ID)).willReturn(person);
-        given(service.update(any(Person.class))).willAnswer((invocation) -> invocation.getArgument(0));
+        given(service.findById(PERSON_ID)).willReturn(PersonView.of(person));
+        given(service.update(any(Person.class), any())).willAnswer((invocation) -> invocation.getArgument(0));
 
         // When / Act
         Person updatedPerson = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
@@ -152,8 +478,7 @@ class PersonControllerTest {
     void testGivenUnexistentPerson_whenUpdate_thenReturnNotFound() throws JsonProcessingException, Exception {
 
         // Given / Arrange
-        given(service.findById(PERSON_ID)).willThrow(ResourceNotFoundException.class);
-        given(service.update(any(Person.class))).willAnswer((invocation) -> invocation.getArgument(1));
+        given(service.update(any(Person.class), any())).willThrow(new ResourceNotFoundException("No records found for this ID!"));
 
         // When / Act
         Person updatedPerson = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
@@ -165,6 +490,66 @@ class PersonControllerTest {
         response.andExpect(status().isNotFound()).andDo(print());
     }
 
+    @Test
+    @DisplayName("JUnit test for Given email of another person when update then return conflict")
+    void testGivenEmailOfAnotherPerson_whenUpdate_thenReturnConflict() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.update(any(Person.class), any())).willThrow(new ConflictException("Email alredy registered"));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(put("/person").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(person)));
+
+        // Then / Assert
+        response.andExpect(status().isConflict()).andDo(print());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given database failure when update then return internal server error")
+    void testGivenDatabaseFailure_whenUpdate_thenReturnInternalServerError() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.update(any(Person.class), any())).willThrow(new CannotGetJdbcConnectionException("Connection refused"));
+
+        // When / Act
+        ResultActions response = mockMvc.perform(put("/person").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(person)));
+
+        // Then / Assert
+        response.andExpect(status().isInternalServerError()).andDo(print());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given partial person when patch then return noContent")
+    void testGivenPartialPerson_whenPatch_thenReturnNoContent() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        willDoNothing().given(service).patch(eq(PERSON_ID), any(Person.class), any());
+
+        // When / Act
+        ResultActions response = mockMvc.perform(patch("/person/{id}", PERSON_ID).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Maria\"}"));
+
+        // Then / Assert
+        response.andExpect(status().isNoContent()).andDo(print());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given unexistent person when patch then return not Found")
+    void testGivenUnexistentPerson_whenPatch_thenReturnNotFound() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        willThrow(new ResourceNotFoundException("No records found for this ID!")).given(service).patch(eq(PERSON_ID), any(Person.class), any());
+
+        // When / Act
+        ResultActions response = mockMvc.perform(patch("/person/{id}", PERSON_ID).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Maria\"}"));
+
+        // Then / Assert
+        response.andExpect(status().isNotFound()).andDo(print());
+    }
+
     @Test
     @DisplayName("JUnit test for Given personId when delete then return noContent")
     void testGivenPersonId_whenDelete_thenReturnNoContent() throws JsonProcessingException, Exception {
@@ -178,4 +563,35 @@ class PersonControllerTest {
         // Then / Assert
         response.andExpect(status().isNoContent()).andDo(print());
     }
+
+    @Test
+    @DisplayName("JUnit test for Given list of ids when delete then return noContent")
+    void testGivenListOfIds_whenDelete_thenReturnNoContent() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.deleteAll(List.of(1L, 2L, 3L))).willReturn(3);
+
+        // When / Act
+        ResultActions response = mockMvc.perform(delete("/person").param("ids", "1,2,3"));
+
+        // Then / Assert
+        response.andExpect(status().isNoContent()).andDo(print());
+        verify(service).deleteAll(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given list of ids when purge then return noContent")
+    void testGivenListOfIds_whenPurge_thenReturnNoContent() throws JsonProcessingException, Exception {
+
+        // Given / Arrange
+        given(service.deleteAll(List.of(1L, 2L, 3L))).willReturn(3);
+
+        // When / Act
+        ResultActions response = mockMvc.perform(post("/person/purge").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(1L, 2L, 3L))));
+
+        // Then / Assert
+        response.andExpect(status().isNoContent()).andDo(print());
+        verify(service).deleteAll(List.of(1L, 2L, 3L));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonJson;
+import br.com.erudio.model.PersonPage;
+import br.com.erudio.model.PersonView;
+
+class PersonJsonTest {
+
+    private ObjectMapper beanMapper;
+    private ObjectMapper tunedMapper;
+
+    private Person person;
+    private Person partialPerson;
+
+    @BeforeEach
+    void setup() {
+        beanMapper = Jackson2ObjectMapperBuilder.json().build();
+        tunedMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(personJson()).build();
+        person = new Person(1L, "Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000 \"A\" ção", "Male");
+        person.setVersion(7);
+        partialPerson = new Person(null, "Edielson", null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given people and views when serialize then write the bean mapping bytes")
+    void testGivenPeopleAndViews_whenSerialize_thenWriteTheBeanMappingBytes() throws Exception {
+
+        // Given / Arrange
+        List<Object> values = new ArrayList<>(Arrays.asList(person, partialPerson, PersonView.of(person),
+                PersonView.of(partialPerson), List.of(person, partialPerson),
+                new PersonPage(List.of(PersonView.of(person)), "next")));
+
+        // When / Act / Then / Assert
+        for (Object value : values) {
+            assertEquals(beanMapper.writeValueAsString(value), tunedMapper.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given CBOR mappers when serialize then write the bean mapping bytes")
+    void testGivenCborMappers_whenSerialize_thenWriteTheBeanMappingBytes() throws Exception {
+
+        // Given / Arrange
+        ObjectMapper beanCbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        ObjectMapper tunedCbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory())
+                .modulesToInstall(personJson()).build();
+
+        // When / Act / Then / Assert
+        assertArrayEquals(beanCbor.writeValueAsBytes(List.of(person, partialPerson)),
+                tunedCbor.writeValueAsBytes(List.of(person, partialPerson)));
+        assertEquals(person, tunedCbor.readValue(beanCbor.writeValueAsBytes(person), Person.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given JSON documents when deserialize then read what the bean mapping reads")
+    void testGivenJsonDocuments_whenDeserialize_thenReadWhatTheBeanMappingReads() throws Exception {
+
+        // Given / Arrange
+        List<String> documents = List.of(
+                beanMapper.writeValueAsString(person),
+                beanMapper.writeValueAsString(partialPerson),
+                "{\"version\":3,\"email\":\"a@b.com\",\"id\":\"12\",\"firstName\":null,\"lastName\":42}",
+                "{\"id\":null,\"version\":null,\"unknown\":{\"nested\":[1,2]},\"gender\":\"Female\"}",
+                "{}");
+
+        // When / Act / Then / Assert
+        for (String document : documents) {
+            Person expected = beanMapper.readValue(document, Person.class);
+            Person actual = tunedMapper.readValue(document, Person.class);
+            assertEquals(beanMapper.writeValueAsString(expected), beanMapper.writeValueAsString(actual), document);
+        }
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given list of people when deserialize then read every person")
+    void testGivenListOfPeople_whenDeserialize_thenReadEveryPerson() throws Exception {
+
+        // Given / Arrange
+        String document = beanMapper.writeValueAsString(List.of(person, partialPerson, person));
+
+        // When / Act
+        List<Person> people = tunedMapper.readValue(document, new TypeReference<List<Person>>() {});
+
+        // Then / Assert
+        assertEquals(document, beanMapper.writeValueAsString(people));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given failing on unknown properties when deserialize then reject the unknown field")
+    void testGivenFailingOnUnknownProperties_whenDeserialize_thenRejectTheUnknownField() {
+
+        // Given / Arrange
+        ObjectMapper strictMapper = tunedMapper.copy().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // When / Act / Then / Assert
+        assertThrows(UnrecognizedPropertyException.class,
+                () -> strictMapper.readValue("{\"id\":1,\"nickname\":\"Ed\"}", Person.class));
+    }
+
+    private static SimpleModule personJson() {
+        return new SimpleModule()
+                .addSerializer(new PersonJson.Serializer())
+                .addSerializer(new PersonJson.ViewSerializer())
+                .addDeserializer(Person.class, new PersonJson.Deserializer());
+    }
+}
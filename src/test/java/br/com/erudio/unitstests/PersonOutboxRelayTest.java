@@ -0,0 +1,209 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.model.PersonEvent;
+import br.com.erudio.repositories.PersonOutboxRepository;
+import br.com.erudio.services.FilePersonEventSink;
+import br.com.erudio.services.InMemoryPersonEventSink;
+import br.com.erudio.services.PersonEventSink;
+import br.com.erudio.services.PersonOutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PersonOutboxRelayTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PersonOutboxRepository repository;
+    private InMemoryPersonEventSink sink;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V5__create_person_outbox.sql"))
+                .execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new PersonOutboxRepository(jdbcTemplate);
+        sink = new InMemoryPersonEventSink();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given more events than a batch when tick then deliver all in order and clean them up")
+    void testGivenMoreEventsThanABatch_whenTick_thenDeliverAllInOrderAndCleanThemUp() {
+
+        // Given / Arrange
+        append(5, Instant.now());
+        PersonOutboxRelay relay = relay(sink, 2, Duration.ofHours(1));
+
+        // When / Act
+        relay.tick();
+
+        // Then / Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sink.events().stream().map(PersonEvent::id).toList());
+        assertEquals(5, repository.findCursor(PersonOutboxRelay.RELAY));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person_outbox", Integer.class));
+        assertEquals(5, registry.get("person.outbox.delivered").counter().count());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given failing sink when tick then keep the batch and deliver it on the next tick")
+    void testGivenFailingSink_whenTick_thenKeepTheBatchAndDeliverItOnTheNextTick() {
+
+        // Given / Arrange
+        append(3, Instant.now());
+        AtomicInteger calls = new AtomicInteger();
+        PersonEventSink flaky = events -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IllegalStateException("Sink down");
+            }
+            sink.deliver(events);
+        };
+        PersonOutboxRelay relay = relay(flaky, 10, Duration.ofHours(1));
+
+        // When / Act
+        relay.tick();
+        long cursorAfterFailure = repository.findCursor(PersonOutboxRelay.RELAY);
+        relay.tick();
+
+        // Then / Assert
+        assertEquals(0, cursorAfterFailure);
+        assertEquals(1, registry.get("person.outbox.failures").counter().count());
+        assertEquals(3, sink.events().size());
+        assertEquals(3, repository.findCursor(PersonOutboxRelay.RELAY));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given missing id when tick then stop before it until the gap timeout passes")
+    void testGivenMissingId_whenTick_thenStopBeforeItUntilTheGapTimeoutPasses() {
+
+        // Given / Arrange
+        insert(1, Instant.now());
+        insert(3, Instant.now());
+
+        // When / Act
+        relay(sink, 10, Duration.ofHours(1)).tick();
+        List<PersonEvent> beforeTimeout = sink.events();
+        relay(sink, 10, Duration.ZERO).tick();
+
+        // Then / Assert
+        assertEquals(List.of(1L), beforeTimeout.stream().map(PersonEvent::id).toList());
+        assertEquals(List.of(1L, 3L), sink.events().stream().map(PersonEvent::id).toList());
+        assertEquals(3, repository.findCursor(PersonOutboxRelay.RELAY));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given undelivered events when tick then report their lag and backlog")
+    void testGivenUndeliveredEvents_whenTick_thenReportTheirLagAndBacklog() {
+
+        // Given / Arrange
+        append(4, Instant.now().minusSeconds(60));
+        PersonOutboxRelay relay = relay(events -> {
+            throw new IllegalStateException("Sink down");
+        }, 10, Duration.ofHours(1));
+
+        // When / Act
+        relay.tick();
+
+        // Then / Assert
+        assertTrue(registry.get("person.outbox.lag").timeGauge().value() >= 60);
+        assertEquals(4, registry.get("person.outbox.backlog").gauge().value());
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person_outbox", Integer.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given empty outbox past an old cursor when tick then neither lock nor delete")
+    void testGivenEmptyOutboxPastAnOldCursor_whenTick_thenNeitherLockNorDelete() {
+
+        // Given / Arrange
+        repository.moveCursor(PersonOutboxRelay.RELAY, 1_000_000);
+        PersonOutboxRepository watched = spy(repository);
+        registry = new SimpleMeterRegistry();
+        PersonOutboxRelay relay = new PersonOutboxRelay(watched, sink, new DataSourceTransactionManager(dataSource),
+                registry, 10, Duration.ofHours(1), Duration.ofSeconds(30));
+
+        // When / Act
+        relay.tick();
+        relay.tick();
+
+        // Then / Assert
+        verify(watched, never()).lockCursor(anyString());
+        verify(watched, never()).deleteRange(anyLong(), anyLong());
+        assertTrue(sink.events().isEmpty());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given file sink when deliver then append one json line per event")
+    void testGivenFileSink_whenDeliver_thenAppendOneJsonLinePerEvent(@TempDir Path dir) throws Exception {
+
+        // Given / Arrange
+        Path file = dir.resolve("events.ndjson");
+        FilePersonEventSink fileSink = new FilePersonEventSink(file, new JsonFactory());
+        Instant now = Instant.now();
+
+        // When / Act
+        fileSink.deliver(List.of(new PersonEvent(1L, PersonEvent.Type.CREATED, 7L, "{\"id\":7}", now)));
+        fileSink.deliver(List.of(new PersonEvent(2L, PersonEvent.Type.DELETED, 7L, null, now)));
+
+        // Then / Assert
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode created = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("CREATED", created.get("type").asText());
+        assertEquals(7, created.get("person").get("id").asLong());
+        assertTrue(new ObjectMapper().readTree(lines.get(1)).get("person").isNull());
+    }
+
+    private PersonOutboxRelay relay(PersonEventSink target, int batchSize, Duration gapTimeout) {
+        registry = new SimpleMeterRegistry();
+        return new PersonOutboxRelay(repository, target, new DataSourceTransactionManager(dataSource), registry,
+                batchSize, gapTimeout, Duration.ofSeconds(30));
+    }
+
+    private void append(int count, Instant createdAt) {
+        for (long personId = 1; personId <= count; personId++) {
+            repository.append(List.of(new PersonEvent(null, PersonEvent.Type.CREATED, personId, "{}", createdAt)));
+        }
+    }
+
+    private void insert(long id, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO person_outbox (id, type, person_id, payload, created_at) VALUES (?, ?, ?, ?, ?)",
+                id, "CREATED", id, "{}", Timestamp.from(createdAt));
+    }
+}
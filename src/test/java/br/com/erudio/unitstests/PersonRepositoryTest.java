@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,9 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import br.com.erudio.integrationstests.testcontainers.AbstractIntegrationTest;
 import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonFilter;
+import br.com.erudio.model.PersonView;
 import br.com.erudio.repositories.PersonRepository;
 
 @Order(1)
@@ -25,6 +29,9 @@ class PersonRepositoryTest extends AbstractIntegrationTest {
 	@Autowired
 	private PersonRepository repository;
 
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
 	private Person person;
 
 	@BeforeEach
@@ -64,6 +71,97 @@ class PersonRepositoryTest extends AbstractIntegrationTest {
 		assertTrue(personList.stream().anyMatch(x -> x.getFirstName().equals("Rodrigo")));
 	}
 
+	@DisplayName("Given person list when findByIdGreaterThan then return next keyset page")
+	@Test
+	void testGivenPersonList_whenFindByIdGreaterThan_thenReturnNextKeysetPage() {
+
+		// Given / Arrange
+		Person p1 = new Person("Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male");
+		Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
+		Person p3 = new Person("Maria", "Souza", "maria@email.com", "Rua das flores, 10", "Female");
+
+		repository.saveAll(List.of(p1, p2, p3));
+
+		// When / Act
+		List<PersonView> page = repository.findPageAfter(p1.getId(), 1);
+
+		// Then / Assert
+		assertEquals(1, page.size());
+		assertEquals(p2.getId(), page.get(0).id());
+	}
+
+	@DisplayName("Given person list and filter when findFilteredPageAfter then return matching keyset page")
+	@Test
+	void testGivenPersonListAndFilter_whenFindFilteredPageAfter_thenReturnMatchingKeysetPage() {
+
+		// Given / Arrange
+		Person p1 = new Person("Edielson", "Assis", "edielson@erudio.com.br", "Rua dos sonhos, 1000", "Male");
+		Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
+		Person p3 = new Person("Maria", "Souza", "maria@erudio.com.br", "Rua das flores, 10", "Female");
+		Person p4 = new Person("Joao", "Assis", "joao@erudio_com.br", "Rua das flores, 20", "Male");
+
+		repository.saveAll(List.of(p1, p2, p3, p4));
+
+		// When / Act
+		List<PersonView> males = repository.findFilteredPageAfter(new PersonFilter(null, null, "Male", "erudio.com.br"), 0L, 10);
+		List<PersonView> assis = repository.findFilteredPageAfter(new PersonFilter(null, "Assis", null, null), p1.getId(), 10);
+
+		// Then / Assert
+		assertEquals(List.of(PersonView.of(p1)), males);
+		assertEquals(List.of(PersonView.of(p4)), assis);
+	}
+
+	@DisplayName("Given person list when findAllViews then return person views")
+	@Test
+	void testGivenPersonList_whenFindAllViews_thenReturnPersonViews() {
+
+		// Given / Arrange
+		Person p1 = new Person("Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male");
+		Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
+
+		repository.saveAll(List.of(p1, p2));
+
+		// When / Act
+		List<PersonView> personList = repository.findAllViews();
+
+		// Then / Assert
+		assertEquals(List.of(PersonView.of(p1), PersonView.of(p2)), personList);
+	}
+
+	@DisplayName("Given person objejct when findViewById then return person view")
+	@Test
+	void testGivenPersonObject_whenFindViewById_thenReturnPersonView() {
+
+		// Given / Arrange
+		repository.save(person);
+
+		// When / Act
+		PersonView view = repository.findViewById(person.getId()).get();
+
+		// Then / Assert
+		assertEquals(PersonView.of(person), view);
+	}
+
+	@DisplayName("Given person list when streamAll then stream people ordered by id")
+	@Test
+	void testGivenPersonList_whenStreamAll_thenStreamPeopleOrderedById() {
+
+		// Given / Arrange
+		Person p1 = new Person("Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male");
+		Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
+
+		repository.saveAll(List.of(p1, p2));
+
+		// When / Act
+		List<Long> ids;
+		try (Stream<Person> people = repository.streamAll()) {
+			ids = people.map(Person::getId).toList();
+		}
+
+		// Then / Assert
+		assertEquals(List.of(p1.getId(), p2.getId()), ids);
+	}
+
 	@DisplayName("Given person objejct when findById then return person object")
 	@Test
 	void testGivenPersonObject_whenFindById_thenReturnPersonObject() {
@@ -116,6 +214,27 @@ class PersonRepositoryTest extends AbstractIntegrationTest {
 		assertEquals("Rodrigo", updatedPerson.getFirstName());
 	}
 
+	@DisplayName("Given partial changes when patch then update only the given columns")
+	@Test
+	void testGivenPartialChanges_whenPatch_thenUpdateOnlyGivenColumns() {
+
+		// Given / Arrange
+		repository.save(person);
+
+		// When / Act
+		int updated = repository.patch(person.getId(), "Rodrigo", null, null, null, null, null);
+		int missing = repository.patch(-1L, "Rodrigo", null, null, null, null, null);
+
+		PersonView patchedPerson = repository.findViewById(person.getId()).get();
+
+		// Then / Assert
+		assertEquals(1, updated);
+		assertEquals(0, missing);
+		assertEquals("Rodrigo", patchedPerson.firstName());
+		assertEquals(person.getLastName(), patchedPerson.lastName());
+		assertEquals(person.getEmail(), patchedPerson.email());
+	}
+
 	@DisplayName("Given person objejct when delete then remove person")
 	@Test
 	void testGivenPersonObject_whenDelete_thenRemovePerson() {
@@ -133,6 +252,45 @@ class PersonRepositoryTest extends AbstractIntegrationTest {
 		assertTrue(personOptional.isEmpty());
 	}
 
+	@DisplayName("Given person object when patch then bump version and reject stale versions")
+	@Test
+	void testGivenPersonObject_whenPatch_thenBumpVersionAndRejectStaleVersions() {
+
+		// Given / Arrange
+		repository.save(person);
+		String collectionVersion = repository.findCollectionVersion();
+
+		// When / Act
+		int updated = repository.patch(person.getId(), "Rodrigo", null, null, null, null, 0L);
+		int stale = repository.patch(person.getId(), "Leandro", null, null, null, null, 0L);
+
+		// Then / Assert
+		assertEquals(1, updated);
+		assertEquals(0, stale);
+		assertEquals(Optional.of(1L), repository.findVersionById(person.getId()));
+		assertEquals(1L, repository.findViewById(person.getId()).get().version());
+		assertNotEquals(collectionVersion, repository.findCollectionVersion());
+	}
+
+	@DisplayName("Given person ids when purge then delete in one statement and return affected rows")
+	@Test
+	void testGivenPersonIds_whenPurge_thenDeleteAndReturnAffectedRows() {
+
+		// Given / Arrange
+		Person person1 = new Person("Leonardo", "Costa", "leonardo@email.com", "Uberlândia - Minas Gerais", "Male");
+		repository.save(person);
+		repository.save(person1);
+
+		// When / Act
+		int purged = repository.purgeAll(List.of(person.getId(), person1.getId(), -1L));
+		int missing = repository.purge(person.getId());
+
+		// Then / Assert
+		assertEquals(2, purged);
+		assertEquals(0, missing);
+		assertTrue(repository.findViewById(person1.getId()).isEmpty());
+	}
+
 	@DisplayName("Given firstName and lastName when findByJPQL then return person object")
 	@Test
 	void testGivenFirstNameAndLastName_whenFindByJPQL_thenReturnPersonObject() {
@@ -204,4 +362,51 @@ class PersonRepositoryTest extends AbstractIntegrationTest {
 		assertEquals(firstName, personJPQL.getFirstName());
 		assertNotNull(personJPQL);
 	}
+
+	@DisplayName("Given email lookup when explain then use unique email index")
+	@Test
+	void testGivenEmailLookup_whenExplain_thenUseUniqueEmailIndex() {
+
+		// Given / Arrange
+		repository.saveAndFlush(person);
+
+		// When / Act
+		String key = explainKey("SELECT * FROM person p WHERE p.email = ?", person.getEmail());
+
+		// Then / Assert
+		assertEquals("uk_person_email", key);
+	}
+
+	@DisplayName("Given JPQL name lookup when explain then use name index")
+	@Test
+	void testGivenJPQLNameLookup_whenExplain_thenUseNameIndex() {
+
+		// Given / Arrange
+		repository.saveAndFlush(person);
+
+		// When / Act, with the SQL Hibernate generates for findByJPQL and findByJPQLNamedParameters
+		String key = explainKey("SELECT p1_0.id,p1_0.address,p1_0.email,p1_0.first_name,p1_0.gender,p1_0.last_name "
+				+ "FROM person p1_0 WHERE p1_0.first_name=? AND p1_0.last_name=?", "Edielson", "Assis");
+
+		// Then / Assert
+		assertEquals("idx_person_name", key);
+	}
+
+	@DisplayName("Given native name lookup when explain then use name index")
+	@Test
+	void testGivenNativeNameLookup_whenExplain_thenUseNameIndex() {
+
+		// Given / Arrange
+		repository.saveAndFlush(person);
+
+		// When / Act, with the SQL of findByNativeSQL and findByNativeSQLWithNamedParameters
+		String key = explainKey("SELECT * FROM person p WHERE p.first_name = ? AND p.last_name = ?", "Edielson", "Assis");
+
+		// Then / Assert
+		assertEquals("idx_person_name", key);
+	}
+
+	private String explainKey(String sql, Object... args) {
+		return (String) jdbcTemplate.queryForList("EXPLAIN " + sql, args).get(0).get("key");
+	}
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+class PersonSchemaMigrationTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given table built by Hibernate when migrate then add the email unique key")
+    void testGivenTableBuiltByHibernate_whenMigrate_thenAddTheEmailUniqueKey() {
+
+        // Given / Arrange
+        jdbcTemplate.execute("CREATE TABLE person (id BIGINT NOT NULL AUTO_INCREMENT, first_name VARCHAR(80) NOT NULL, "
+                + "last_name VARCHAR(80) NOT NULL, address VARCHAR(100) NOT NULL, gender VARCHAR(6) NOT NULL, "
+                + "email VARCHAR(100) NOT NULL, PRIMARY KEY (id))");
+        insert(1, "edielson@email.com");
+
+        // When / Act
+        migrate();
+
+        // Then / Assert
+        assertEquals(1, emailKeys());
+        assertThrows(DuplicateKeyException.class, () -> insert(2, "edielson@email.com"));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given empty database when migrate then keep the single email unique key")
+    void testGivenEmptyDatabase_whenMigrate_thenKeepTheSingleEmailUniqueKey() {
+
+        // When / Act
+        migrate();
+
+        // Then / Assert
+        assertEquals(1, emailKeys());
+        insert(1, "edielson@email.com");
+        assertThrows(DuplicateKeyException.class, () -> insert(2, "edielson@email.com"));
+    }
+
+    private void migrate() {
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+    }
+
+    private int emailKeys() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints "
+                + "WHERE table_name = 'person' AND constraint_name = 'uk_person_email'", Integer.class);
+    }
+
+    private void insert(long id, String email) {
+        jdbcTemplate.update("INSERT INTO person (id, first_name, last_name, address, gender, email) "
+                + "VALUES (?, 'Edielson', 'Assis', 'Rua dos sonhos, 1000', 'Male', ?)", id, email);
+    }
+}
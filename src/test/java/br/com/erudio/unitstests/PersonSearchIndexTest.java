@@ -0,0 +1,118 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.erudio.services.PersonSearchIndex;
+
+class PersonSearchIndexTest {
+
+    private PersonSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new PersonSearchIndex();
+        index.put(1L, "Edielson", "Assis", "edielson@email.com");
+        index.put(2L, "Edi", "Souza", "edi@email.com");
+        index.put(3L, "Leandro", "Costa", "leandro@email.com");
+        index.put(4L, "José", "Gonçalves", "jose@email.com");
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given prefix when search then return people starting with it, shortest first")
+    void testGivenPrefix_whenSearch_thenReturnPeopleStartingWithItShortestFirst() {
+
+        // When / Act
+        List<Long> ids = index.search("Ed", 10);
+
+        // Then / Assert
+        assertEquals(List.of(2L, 1L), ids);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given misspelled name when search then still find the person")
+    void testGivenMisspelledName_whenSearch_thenStillFindThePerson() {
+
+        // When / Act
+        List<Long> ids = index.search("Leandor", 10);
+
+        // Then / Assert
+        assertEquals(List.of(3L), ids);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given query without accents when search then match accented names")
+    void testGivenQueryWithoutAccents_whenSearch_thenMatchAccentedNames() {
+
+        // When / Act
+        List<Long> ids = index.search("goncalves", 10);
+
+        // Then / Assert
+        assertEquals(List.of(4L), ids);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given limit when search then return at most limit ids")
+    void testGivenLimit_whenSearch_thenReturnAtMostLimitIds() {
+
+        // When / Act
+        List<Long> ids = index.search("email", 2);
+
+        // Then / Assert
+        assertEquals(2, ids.size());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given removed person when search then not return it")
+    void testGivenRemovedPerson_whenSearch_thenNotReturnIt() {
+
+        // Given / Arrange
+        index.remove(2L);
+
+        // When / Act
+        List<Long> ids = index.search("Edi", 10);
+
+        // Then / Assert
+        assertEquals(List.of(1L), ids);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given renamed person when search then match only the new name")
+    void testGivenRenamedPerson_whenSearch_thenMatchOnlyTheNewName() {
+
+        // Given / Arrange
+        index.put(3L, "Marcos", "Costa", "marcos@email.com");
+
+        // When / Act
+        List<Long> oldName = index.search("Leandro", 10);
+        List<Long> newName = index.search("Marcos", 10);
+
+        // Then / Assert
+        assertTrue(oldName.isEmpty());
+        assertEquals(List.of(3L), newName);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given many renames when search then stale entries are compacted away")
+    void testGivenManyRenames_whenSearch_thenStaleEntriesAreCompactedAway() {
+
+        // Given / Arrange
+        for (int i = 0; i < 100; i++) {
+            index.put(10L + i, "Pedro", "Silva", "pedro" + i + "@email.com");
+            index.put(10L + i, "Paulo", "Silva", "paulo" + i + "@email.com");
+        }
+
+        // When / Act
+        List<Long> ids = index.search("Pedro", 10);
+
+        // Then / Assert
+        assertTrue(ids.isEmpty());
+        assertEquals(10, index.search("Paulo", 10).size());
+    }
+}
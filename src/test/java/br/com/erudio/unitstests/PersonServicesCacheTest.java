@@ -0,0 +1,221 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.erudio.config.CacheConfig;
+import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.PersonServices;
+import jakarta.persistence.EntityManagerFactory;
+
+@Order(2)
+@SpringBootTest(classes = { PersonServices.class, CacheConfig.class },
+        properties = { "spring.cache.cache-names=person", "spring.cache.caffeine.spec=maximumSize=100,recordStats" })
+@ImportAutoConfiguration({ CacheAutoConfiguration.class, JacksonAutoConfiguration.class })
+class PersonServicesCacheTest {
+
+    @MockBean
+    private PersonRepository repository;
+
+    @MockBean
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PersonServices service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Person person;
+
+    private static final Long PERSON_ID = 1L;
+
+    @BeforeEach
+    void setup() {
+        cacheManager.getCache(CacheConfig.PERSON_CACHE).clear();
+        person = new Person(PERSON_ID, "Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male");
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given cached person when findById twice then query repository once")
+    void testGivenCachedPerson_whenFindByIdTwice_thenQueryRepositoryOnce() {
+
+        // Given / Arrange
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
+
+        // When / Act
+        PersonView first = service.findById(PERSON_ID);
+        PersonView second = service.findById(PERSON_ID);
+
+        // Then / Assert
+        assertSame(first, second);
+        verify(repository, times(1)).findViewById(PERSON_ID);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given missing person when findById twice then cache nothing")
+    void testGivenMissingPerson_whenFindByIdTwice_thenCacheNothing() {
+
+        // Given / Arrange
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.empty());
+
+        // When / Act
+        assertThrows(ResourceNotFoundException.class, () -> service.findById(PERSON_ID));
+        assertThrows(ResourceNotFoundException.class, () -> service.findById(PERSON_ID));
+
+        // Then / Assert
+        assertNull(cacheManager.getCache(CacheConfig.PERSON_CACHE).get(PERSON_ID));
+        verify(repository, times(2)).findViewById(PERSON_ID);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given cached person when findVersion then answer from the cache")
+    void testGivenCachedPerson_whenFindVersion_thenAnswerFromTheCache() {
+
+        // Given / Arrange
+        person.setVersion(4L);
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
+        service.findById(PERSON_ID);
+
+        // When / Act
+        long version = service.findVersion(PERSON_ID);
+
+        // Then / Assert
+        assertEquals(4L, version);
+        verify(repository, never()).findVersionById(PERSON_ID);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given uncached person when findVersion then read only the version")
+    void testGivenUncachedPerson_whenFindVersion_thenReadOnlyTheVersion() {
+
+        // Given / Arrange
+        given(repository.findVersionById(PERSON_ID)).willReturn(Optional.of(2L));
+
+        // When / Act
+        long version = service.findVersion(PERSON_ID);
+
+        // Then / Assert
+        assertEquals(2L, version);
+        verify(repository, never()).findViewById(PERSON_ID);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given cached person when update then next findById returns updated person")
+    void testGivenCachedPerson_whenUpdate_thenNextFindByIdReturnsUpdatedPerson() {
+
+        // Given / Arrange
+        Person updated = new Person(PERSON_ID, "Maria", "Souza", "edielson@email.com", "Rua dos sonhos, 1000", "Female");
+
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
+        service.findById(PERSON_ID);
+
+        given(repository.findById(PERSON_ID)).willReturn(Optional.of(person));
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.of(PersonView.of(updated)));
+        given(repository.saveAndFlush(person)).willReturn(person);
+
+        // When / Act
+        service.update(updated);
+
+        // Then / Assert
+        assertEquals("Maria", service.findById(PERSON_ID).firstName());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given cached person when delete then evict person")
+    void testGivenCachedPerson_whenDelete_thenEvictPerson() {
+
+        // Given / Arrange
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
+        given(repository.purge(PERSON_ID)).willReturn(1);
+        service.findById(PERSON_ID);
+
+        // When / Act
+        service.delete(PERSON_ID);
+
+        // Then / Assert
+        assertNull(cacheManager.getCache(CacheConfig.PERSON_CACHE).get(PERSON_ID));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given cached person when deleteAll then evict person")
+    void testGivenCachedPerson_whenDeleteAll_thenEvictPerson() {
+
+        // Given / Arrange
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
+        given(repository.purgeAll(List.of(PERSON_ID))).willReturn(1);
+        service.findById(PERSON_ID);
+
+        // When / Act
+        service.deleteAll(List.of(PERSON_ID));
+
+        // Then / Assert
+        assertNull(cacheManager.getCache(CacheConfig.PERSON_CACHE).get(PERSON_ID));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given other cached person when deleteAll then keep it cached")
+    void testGivenOtherCachedPerson_whenDeleteAll_thenKeepItCached() {
+
+        // Given / Arrange
+        Long otherId = 2L;
+        given(repository.findViewById(otherId)).willReturn(Optional.of(PersonView.of(person)));
+        given(repository.purgeAll(List.of(PERSON_ID))).willReturn(1);
+        service.findById(otherId);
+
+        // When / Act
+        service.deleteAll(List.of(PERSON_ID));
+
+        // Then / Assert
+        assertNotNull(cacheManager.getCache(CacheConfig.PERSON_CACHE).get(otherId));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given later chunk failing when deleteAll then evict the committed chunk")
+    void testGivenLaterChunkFailing_whenDeleteAll_thenEvictTheCommittedChunk() {
+
+        // Given / Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+        given(repository.findViewById(PERSON_ID)).willReturn(Optional.of(PersonView.of(person)));
+        given(repository.purgeAll(ids.subList(0, 1000))).willReturn(1000);
+        given(repository.purgeAll(ids.subList(1000, 1001))).willThrow(new QueryTimeoutException("Lock wait timeout"));
+        service.findById(PERSON_ID);
+
+        // When / Act
+        assertThrows(QueryTimeoutException.class, () -> service.deleteAll(ids));
+
+        // Then / Assert
+        assertNull(cacheManager.getCache(CacheConfig.PERSON_CACHE).get(PERSON_ID));
+    }
+}
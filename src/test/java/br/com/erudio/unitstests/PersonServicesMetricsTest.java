@@ -0,0 +1,91 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.erudio.config.LayerMetricsAspect;
+import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.PersonServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(classes = { PersonServices.class, LayerMetricsAspect.class, PersonServicesMetricsTest.Registry.class })
+@ImportAutoConfiguration({ AopAutoConfiguration.class, JacksonAutoConfiguration.class })
+class PersonServicesMetricsTest {
+
+    @Configuration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private PersonRepository repository;
+
+    @MockBean
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PersonServices service;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    @DisplayName("JUnit test for Given existing person when findById then time service call")
+    void testGivenExistingPerson_whenFindById_thenTimeServiceCall() {
+
+        // Given / Arrange
+        Person person = new Person(1L, "Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male");
+        given(repository.findViewById(1L)).willReturn(Optional.of(PersonView.of(person)));
+
+        // When / Act
+        service.findById(1L);
+        service.findById(1L);
+
+        // Then / Assert
+        assertEquals(2, registry.get(LayerMetricsAspect.TIMER)
+                .tags("layer", "service", "class", "PersonServices", "method", "findById", "exception", "none")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given missing person when findById then tag timer with exception")
+    void testGivenMissingPerson_whenFindById_thenTagTimerWithException() {
+
+        // Given / Arrange
+        given(repository.findViewById(2L)).willReturn(Optional.empty());
+
+        // When / Act
+        assertThrows(ResourceNotFoundException.class, () -> service.findById(2L));
+
+        // Then / Assert
+        assertEquals(1, registry.get(LayerMetricsAspect.TIMER)
+                .tags("method", "findById", "exception", "ResourceNotFoundException")
+                .timer().count());
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.PersonOutbox;
+import br.com.erudio.services.PersonServices;
+
+@ExtendWith(MockitoExtension.class)
+class PersonServicesOutboxTest {
+
+    @Mock
+    private PersonRepository repository;
+
+    @Mock
+    private PersonOutbox outbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PersonServices service;
+
+    private Person person;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.invokeMethod(service, "setTransactionManager", transactionManager);
+        person = new Person("Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male");
+        person.setId(1L);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given outbox when save person then record a created event")
+    void testGivenOutbox_whenSavePerson_thenRecordACreatedEvent() {
+
+        // Given / Arrange
+        given(repository.saveAndFlush(person)).willReturn(person);
+
+        // When / Act
+        service.create(person);
+
+        // Then / Assert
+        verify(outbox).created(List.of(person));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given outbox when patch person then record the patched row")
+    void testGivenOutbox_whenPatchPerson_thenRecordThePatchedRow() {
+
+        // Given / Arrange
+        PersonView patched = new PersonView(1L, "Leandro", "Assis", "Rua dos sonhos, 1000", "Male",
+                "edielson@email.com", 2L);
+        given(repository.patch(1L, "Leandro", null, null, null, null, null)).willReturn(1);
+        given(repository.findViewById(1L)).willReturn(Optional.of(patched));
+        Person changes = new Person();
+        changes.setFirstName("Leandro");
+
+        // When / Act
+        service.patch(1L, changes, null);
+
+        // Then / Assert
+        verify(outbox).updated(patched);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given missing id when delete then record no event")
+    void testGivenMissingId_whenDelete_thenRecordNoEvent() {
+
+        // Given / Arrange
+        given(repository.purge(1L)).willReturn(0);
+
+        // When / Act
+        assertThrows(ResourceNotFoundException.class, () -> service.delete(1L));
+
+        // Then / Assert
+        verify(outbox, never()).deleted(anyCollection());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given some ids missing when deleteAll then record only the deleted ones")
+    void testGivenSomeIdsMissing_whenDeleteAll_thenRecordOnlyTheDeletedOnes() {
+
+        // Given / Arrange
+        given(repository.lockExistingIds(List.of(1L, 2L, 3L))).willReturn(List.of(1L, 3L));
+        given(repository.purgeAll(List.of(1L, 3L))).willReturn(2);
+
+        // When / Act
+        int deleted = service.deleteAll(List.of(1L, 2L, 3L));
+
+        // Then / Assert
+        assertEquals(2, deleted);
+        verify(outbox).deleted(List.of(1L, 3L));
+        verify(transactionManager).commit(any());
+    }
+}
@@ -2,9 +2,11 @@ package br.com.erudio.unitstests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
@@ -13,10 +15,17 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
@@ -24,11 +33,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.exceptions.BadRequestException;
+import br.com.erudio.exceptions.ConflictException;
+import br.com.erudio.exceptions.PreconditionFailedException;
+import br.com.erudio.exceptions.ResourceNotFoundException;
 import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.model.PersonFilter;
+import br.com.erudio.model.PersonPage;
+import br.com.erudio.model.PersonView;
 import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.EmailBloomFilter;
+import br.com.erudio.services.PersonSearchIndex;
 import br.com.erudio.services.PersonServices;
+import jakarta.persistence.EntityManager;
 
 @Order(2)
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +62,18 @@ class PersonServicesTest {
     @Mock
     private PersonRepository repository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private PersonSearchIndex searchIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private PersonServices service;
 
@@ -52,8 +89,7 @@ class PersonServicesTest {
     void testGivenPersonObject_whenSavePerson_thenReturnSavedPerson() {
 
         // Given / Arrenge
-        given(repository.findByEmail(anyString())).willReturn(Optional.empty()); // retorna um Optional vazio, garantindo que o email nao existe na base de dados
-        given(repository.save(person)).willReturn(person);
+        given(repository.saveAndFlush(person)).willReturn(person);
 
         // When / Act
         Person savedPerson = service.create(person);
@@ -61,6 +97,9 @@ class PersonServicesTest {
         // Then / Assert
         assertNotNull(savedPerson);
         assertEquals("Edielson", savedPerson.getFirstName());
+        verify(repository, never()).existsByEmail(anyString()); // o filtro garante que o email e novo, entao nao ha consulta previa
+        verify(emailFilter, times(1)).add(person.getEmail());
+        verify(searchIndex, times(1)).put(person.getId(), "Edielson", "Assis", "edielson@email.com");
     }
     
     @Test
@@ -68,17 +107,85 @@ class PersonServicesTest {
     void testGivenExistingEmail_whenSavePerson_thenThrowsException() {
 
         // Given / Arrenge
-        given(repository.findByEmail(anyString())).willReturn(Optional.of(person)); // retorna um Optional com o objeto person, indicando que o email ja existe na base de dados
+        given(emailFilter.mightContain(person.getEmail())).willReturn(true);
+        given(repository.existsByEmail(person.getEmail())).willReturn(true); // indica que o email ja existe na base de dados
+
+        // When / Act
+        assertThrows(ConflictException.class, () -> {
+            service.create(person);
+        });
+
+        // Then / Assert
+        verify(repository, never()).saveAndFlush(any(Person.class)); // garante que o insert nao seja tentado, caso o email ja exista
+    }
+    
+    @Test
+    @DisplayName("JUnit test for Given email inserted concurrently when save person then throws conflict")
+    void testGivenEmailInsertedConcurrently_whenSavePerson_thenThrowsConflict() {
+
+        // Given / Arrenge
+        var violation = new ConstraintViolationException("Duplicate entry", new SQLException(), "person.uk_person_email");
+        given(repository.saveAndFlush(person)).willThrow(new DataIntegrityViolationException("Duplicate entry", violation));
 
         // When / Act
-        assertThrows(RuntimeException.class, () -> {
+        assertThrows(ConflictException.class, () -> {
             service.create(person);
         });
 
         // Then / Assert
-        verify(repository, never()).save(any(Person.class)); // garante que o servico nao seja chamado, caso o email ja exista
+        verify(emailFilter, never()).add(anyString());
     }
     
+    @Test
+    @DisplayName("JUnit test for Given batch with existing and repeated emails when createAll then reject only those entries")
+    void testGivenBatchWithExistingAndRepeatedEmails_whenCreateAll_thenRejectOnlyThoseEntries() {
+
+        // Given / Arrange
+        Person p1 = new Person("Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
+        Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
+        Person p3 = new Person("Rodrigo", "Silva", "RODRIGO@email.com", "Rua dos doces, 1", "Male");
+        Person p4 = new Person("Maria", "Souza", null, "Rua das flores, 10", "Female");
+
+        given(repository.findExistingEmails(List.of("carlos@email.com", "rodrigo@email.com"))).willReturn(List.of("Carlos@email.com"));
+        given(repository.save(p2)).willAnswer(invocation -> {
+            p2.setId(10L);
+            return p2;
+        });
+
+        // When / Act
+        PersonBatchResult result = service.createAll(List.of(p1, p2, p3, p4));
+
+        // Then / Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getRejected());
+        assertEquals("Email alredy registered", result.getItems().get(0).getError());
+        assertEquals(10L, result.getItems().get(1).getId());
+        assertEquals("Email repeated in batch", result.getItems().get(2).getError());
+        assertEquals("Missing required fields", result.getItems().get(3).getError());
+        verify(repository, never()).save(p1);
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given value longer than its column when createAll then reject only that entry")
+    void testGivenValueLongerThanItsColumn_whenCreateAll_thenRejectOnlyThatEntry() {
+
+        // Given / Arrange
+        Person p1 = new Person("Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Masculino");
+        Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
+
+        given(repository.findExistingEmails(List.of("rodrigo@email.com"))).willReturn(List.of());
+        given(repository.save(p2)).willReturn(p2);
+
+        // When / Act
+        PersonBatchResult result = service.createAll(List.of(p1, p2));
+
+        // Then / Assert
+        assertEquals(1, result.getCreated());
+        assertEquals("Fields longer than allowed", result.getItems().get(0).getError());
+        verify(repository, never()).save(p1);
+    }
+
     @Test
     @DisplayName("JUnit test for Given when findAll then return people list")
     void testGivenPeopleList_whenFindAll_thenReturnPeopleList() {
@@ -87,15 +194,15 @@ class PersonServicesTest {
 		Person p1 = new Person("Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
 		Person p2 = new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
 
-        given(repository.findAll()).willReturn(List.of(p1, p2));
+        given(repository.findAllViews()).willReturn(List.of(PersonView.of(p1), PersonView.of(p2)));
 
 		// When / Act
-		List<Person> personList = service.findAll();
+		List<PersonView> personList = service.findAll();
 
 		// Then / Assert
 		assertNotNull(personList);
 		assertEquals(2, personList.size());
-		assertTrue(personList.stream().anyMatch(x -> x.getFirstName().equals("Rodrigo")));
+		assertTrue(personList.stream().anyMatch(x -> x.firstName().equals("Rodrigo")));
     }
     
     @Test
@@ -103,29 +210,151 @@ class PersonServicesTest {
     void testGivenPeopleList_whenFindAll_thenReturnEmptyPeopleList() {
 
         // Given / Arrange
-        given(repository.findAll()).willReturn(Collections.emptyList()); // uma alternativa ao Collections.emptyList() seria o List.of()
+        given(repository.findAllViews()).willReturn(Collections.emptyList()); // uma alternativa ao Collections.emptyList() seria o List.of()
 
 		// When / Act
-		List<Person> personList = service.findAll();
+		List<PersonView> personList = service.findAll();
 
 		// Then / Assert
 		assertTrue(personList.isEmpty());
 		assertEquals(0, personList.size());
     }
 
+    @Test
+    @DisplayName("JUnit test for Given more rows than limit when findPage then return page with next cursor")
+    void testGivenMoreRowsThanLimit_whenFindPage_thenReturnPageWithNextCursor() {
+
+        // Given / Arrange
+        PersonView p1 = new PersonView(1L, "Carlos", "Oliveira", "Rua dos sonhos, 1000", "Male", "carlos@email.com", 0L);
+        PersonView p2 = new PersonView(2L, "Rodrigo", "Carvalho", "Rua dos doces, 0", "Male", "rodrigo@email.com", 0L);
+        PersonView p3 = new PersonView(3L, "Maria", "Souza", "Rua das flores, 10", "Female", "maria@email.com", 0L);
+
+        given(repository.findPageAfter(0L, 3)).willReturn(List.of(p1, p2, p3));
+        given(repository.findPageAfter(2L, 3)).willReturn(List.of(p3));
+
+        // When / Act
+        PersonPage firstPage = service.findPage(null, 2);
+        PersonPage lastPage = service.findPage(firstPage.getNext(), 2);
+
+        // Then / Assert
+        assertEquals(2, firstPage.getContent().size());
+        assertNotNull(firstPage.getNext());
+        assertEquals(List.of(p3), lastPage.getContent());
+        assertNull(lastPage.getNext());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given indexed filter when findPage then query the filter shape")
+    void testGivenIndexedFilter_whenFindPage_thenQueryTheFilterShape() {
+
+        // Given / Arrenge
+        PersonFilter filter = new PersonFilter(null, null, "Male", "email.com");
+        PersonView p1 = new PersonView(1L, "Edielson", "Assis", "Rua dos sonhos, 1000", "Male", "edielson@email.com", 0);
+        given(repository.findFilteredPageAfter(filter, 0L, 11)).willReturn(List.of(p1));
+
+        // When / Act
+        PersonPage page = service.findPage(filter, null, 10);
+
+        // Then / Assert
+        assertEquals(List.of(p1), page.getContent());
+        assertNull(page.getNext());
+        verify(repository, never()).findPageAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given filter no index serves when findPage then throws BadRequestException")
+    void testGivenFilterNoIndexServes_whenFindPage_thenThrowsBadRequestException() {
+
+        // Given / Arrenge
+        PersonFilter filter = new PersonFilter(null, null, null, "email.com");
+
+        // When / Act
+        assertThrows(BadRequestException.class, () -> service.findPage(filter, null, 10));
+
+        // Then / Assert
+        verify(repository, never()).findFilteredPageAfter(any(PersonFilter.class), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given unindexed filters allowed when findPage then query the filter shape")
+    void testGivenUnindexedFiltersAllowed_whenFindPage_thenQueryTheFilterShape() {
+
+        // Given / Arrenge
+        ReflectionTestUtils.setField(service, "allowUnindexedFilters", true);
+        PersonFilter filter = new PersonFilter(null, null, null, "email.com");
+        given(repository.findFilteredPageAfter(filter, 0L, 11)).willReturn(List.of());
+
+        // When / Act
+        PersonPage page = service.findPage(filter, null, 10);
+
+        // Then / Assert
+        assertTrue(page.getContent().isEmpty());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given invalid cursor when findPage then throws exception")
+    void testGivenInvalidCursor_whenFindPage_thenThrowsException() {
+
+        // When / Act
+        assertThrows(BadRequestException.class, () -> {
+            service.findPage("not-a-cursor!", 10);
+        });
+
+        // Then / Assert
+        verify(repository, never()).findPageAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given people stream when exportAll then write one detached person per line")
+    void testGivenPeopleStream_whenExportAll_thenWriteOneDetachedPersonPerLine() throws IOException {
+
+        // Given / Arrange
+        Person p1 = new Person(1L, "Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
+        Person p2 = new Person(2L, "Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male");
+
+        given(repository.streamAll()).willReturn(Stream.of(p1, p2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When / Act
+        service.exportAll(out);
+
+        // Then / Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(p1, objectMapper.readValue(lines[0], Person.class));
+        assertEquals(p2, objectMapper.readValue(lines[1], Person.class));
+        verify(entityManager, times(1)).detach(p1);
+        verify(entityManager, times(1)).detach(p2);
+    }
+
     @Test
     @DisplayName("JUnit test for Given Person ID when findById then return person object")
     void testGivenPersonID_whenFindById_thenReturnPersonObject() {
 
         // Given / Arrenge
-        given(repository.findById(anyLong())).willReturn(Optional.of(person));
+        given(repository.findViewById(anyLong())).willReturn(Optional.of(PersonView.of(person)));
 
         // When / Act
-        Person savedPerson = service.findById(1l);
+        PersonView savedPerson = service.findById(1l);
 
         // Then / Assert
         assertNotNull(savedPerson);
-        assertEquals("Edielson", savedPerson.getFirstName());
+        assertEquals("Edielson", savedPerson.firstName());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given unexistent Person ID when findById then throws exception without stack trace")
+    void testGivenUnexistentPersonID_whenFindById_thenThrowsExceptionWithoutStackTrace() {
+
+        // Given / Arrenge
+        given(repository.findViewById(anyLong())).willReturn(Optional.empty());
+
+        // When / Act
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> service.findById(1L));
+
+        // Then / Assert
+        assertEquals(0, exception.getStackTrace().length);
     }
 
     @Test
@@ -134,7 +363,7 @@ class PersonServicesTest {
 
         // Given / Arrenge
         given(repository.findById(person.getId())).willReturn(Optional.of(person));
-        given(repository.save(person)).willReturn(person);
+        given(repository.saveAndFlush(person)).willReturn(person);
 
         person.setFirstName("Maria");
 		person.setLastName("Souza");
@@ -149,18 +378,186 @@ class PersonServicesTest {
         assertEquals("Maria", person.getFirstName());
     }
 
+    @Test
+    @DisplayName("JUnit test for Given email of another person when update then throws conflict")
+    void testGivenEmailOfAnotherPerson_whenUpdate_thenThrowsConflict() {
+
+        // Given / Arrenge
+        var violation = new ConstraintViolationException("Duplicate entry", new SQLException(), "person.uk_person_email");
+        given(repository.findById(person.getId())).willReturn(Optional.of(person));
+        given(repository.saveAndFlush(person)).willThrow(new DataIntegrityViolationException("Duplicate entry", violation));
+
+        // When / Act
+        assertThrows(ConflictException.class, () -> service.update(person));
+
+        // Then / Assert
+        verify(emailFilter, never()).add(anyString());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given partial changes when patch then issue a single update")
+    void testGivenPartialChanges_whenPatch_thenIssueSingleUpdate() {
+
+        // Given / Arrenge
+        Person changes = new Person();
+        changes.setFirstName("Maria");
+        given(repository.patch(person.getId(), "Maria", null, null, null, null, null)).willReturn(1);
+
+        // When / Act
+        service.patch(person.getId(), changes, null);
+
+        // Then / Assert
+        verify(repository, times(1)).patch(person.getId(), "Maria", null, null, null, null, null);
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given unexistent Person when patch then throws ResourceNotFoundException")
+    void testGivenUnexistentPerson_whenPatch_thenThrowsResourceNotFoundException() {
+
+        // Given / Arrenge
+        given(repository.patch(anyLong(), any(), any(), any(), any(), any(), any())).willReturn(0);
+
+        // When / Act
+        assertThrows(ResourceNotFoundException.class, () -> service.patch(99L, new Person(), null));
+
+        // Then / Assert
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given stale version when patch then throws PreconditionFailedException")
+    void testGivenStaleVersion_whenPatch_thenThrowsPreconditionFailedException() {
+
+        // Given / Arrenge
+        given(repository.patch(person.getId(), "Maria", null, null, null, null, 3L)).willReturn(0);
+        given(repository.findVersionById(person.getId())).willReturn(Optional.of(4L));
+        Person changes = new Person();
+        changes.setFirstName("Maria");
+
+        // When / Act
+        assertThrows(PreconditionFailedException.class, () -> service.patch(person.getId(), changes, 3L));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given stale version when update then throws PreconditionFailedException")
+    void testGivenStaleVersion_whenUpdate_thenThrowsPreconditionFailedException() {
+
+        // Given / Arrenge
+        person.setVersion(4L);
+        given(repository.findById(person.getId())).willReturn(Optional.of(person));
+
+        // When / Act
+        assertThrows(PreconditionFailedException.class, () -> service.update(person, 3L));
+
+        // Then / Assert
+        verify(repository, never()).saveAndFlush(any(Person.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given Person ID when findVersion then return version without loading the person")
+    void testGivenPersonID_whenFindVersion_thenReturnVersionWithoutLoadingPerson() {
+
+        // Given / Arrenge
+        given(repository.findVersionById(person.getId())).willReturn(Optional.of(2L));
+
+        // When / Act
+        long version = service.findVersion(person.getId());
+
+        // Then / Assert
+        assertEquals(2L, version);
+        verify(repository, never()).findById(anyLong());
+        verify(repository, never()).findViewById(anyLong());
+    }
+
     @Test
     @DisplayName("JUnit test for Given delete Person when do nothing")
     void testGivenDeletePerson_whenDelete_thenDoNothing() {
 
         // Given / Arrenge
-        given(repository.findById(person.getId())).willReturn(Optional.of(person));
-        willDoNothing().given(repository).delete(person);
+        given(repository.purge(person.getId())).willReturn(1);
 
         // When / Act
         service.delete(person.getId());
 
         // Then / Assert
-        verify(repository, times(1)).delete(person);
+        verify(repository, times(1)).purge(person.getId());
+        verify(repository, never()).findById(anyLong());
+        verify(searchIndex, times(1)).remove(person.getId());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given unexistent Person when delete then throws ResourceNotFoundException")
+    void testGivenUnexistentPerson_whenDelete_thenThrowsResourceNotFoundException() {
+
+        // Given / Arrenge
+        given(repository.purge(99L)).willReturn(0);
+
+        // When / Act
+        assertThrows(ResourceNotFoundException.class, () -> service.delete(99L));
+
+        // Then / Assert
+        verify(repository, never()).delete(any(Person.class));
+        verify(searchIndex, never()).remove(anyLong());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given many repeated ids when deleteAll then delete distinct ids in chunks")
+    void testGivenManyRepeatedIds_whenDeleteAll_thenDeleteDistinctIdsInChunks() {
+
+        // Given / Arrenge
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        ids.add(null);
+        given(repository.purgeAll(any())).willAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        // When / Act
+        int deleted = service.deleteAll(ids);
+
+        // Then / Assert
+        assertEquals(2500, deleted);
+        verify(repository, times(3)).purgeAll(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given empty id list when deleteAll then throws BadRequestException")
+    void testGivenEmptyIdList_whenDeleteAll_thenThrowsBadRequestException() {
+
+        // When / Act
+        assertThrows(BadRequestException.class, () -> service.deleteAll(List.of()));
+
+        // Then / Assert
+        verify(repository, never()).purgeAll(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given query when search then return ids from the index")
+    void testGivenQuery_whenSearch_thenReturnIdsFromTheIndex() {
+
+        // Given / Arrenge
+        given(searchIndex.search("edi", 10)).willReturn(List.of(2L, 1L));
+
+        // When / Act
+        List<Long> ids = service.search("edi", 10);
+
+        // Then / Assert
+        assertEquals(List.of(2L, 1L), ids);
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given blank query or limit out of range when search then throws BadRequestException")
+    void testGivenBlankQueryOrLimitOutOfRange_whenSearch_thenThrowsBadRequestException() {
+
+        // When / Act
+        assertThrows(BadRequestException.class, () -> service.search(" ", 10));
+        assertThrows(BadRequestException.class, () -> service.search("edi", 0));
+        assertThrows(BadRequestException.class, () -> service.search("edi", PersonServices.MAX_SEARCH_LIMIT + 1));
+
+        // Then / Assert
+        verify(searchIndex, never()).search(anyString(), anyInt());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,247 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import br.com.erudio.exceptions.BadRequestException;
+import br.com.erudio.exceptions.ServiceUnavailableException;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.model.PersonWriteStatus;
+import br.com.erudio.model.PersonWriteStatus.State;
+import br.com.erudio.services.PersonServices;
+import br.com.erudio.services.PersonWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PersonWriteBehindTest {
+
+    @Mock
+    private PersonServices service;
+
+    private MeterRegistry registry;
+    private PersonWriteBehind writeBehind;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given people submitted together when flush then store them in one batch")
+    void testGivenPeopleSubmittedTogether_whenFlush_thenStoreThemInOneBatch() throws Exception {
+
+        // Given / Arrange
+        writeBehind = start(100, 3, Duration.ofSeconds(10), 3);
+        given(service.createAll(anyList())).willAnswer(invocation -> {
+            List<Person> people = invocation.getArgument(0);
+            PersonBatchResult result = new PersonBatchResult(people.size());
+            result.created(0, 10L);
+            result.rejected(1, "Email repeated in batch");
+            result.created(2, 11L);
+            return result;
+        });
+
+        // When / Act
+        List<PersonWriteStatus> queued = List.of(writeBehind.submit(person(1)), writeBehind.submit(person(1)),
+                writeBehind.submit(person(2)));
+
+        // Then / Assert
+        assertEquals(State.QUEUED, queued.get(0).state());
+        assertEquals(new PersonWriteStatus(queued.get(0).trackingId(), State.CREATED, 10L, null), await(queued.get(0)));
+        assertEquals(new PersonWriteStatus(queued.get(1).trackingId(), State.REJECTED, null, "Email repeated in batch"),
+                await(queued.get(1)));
+        assertEquals(11L, await(queued.get(2)).personId());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Person>> batch = ArgumentCaptor.forClass(List.class);
+        verify(service).createAll(batch.capture());
+        assertEquals(3, batch.getValue().size());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given full queue when submit then refuse with service unavailable")
+    void testGivenFullQueue_whenSubmit_thenRefuseWithServiceUnavailable() throws Exception {
+
+        // Given / Arrange
+        writeBehind = start(1, 1, Duration.ZERO, 1);
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(service.createAll(anyList())).willAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            PersonBatchResult result = new PersonBatchResult(1);
+            result.created(0, 1L);
+            return result;
+        });
+        writeBehind.submit(person(1));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        PersonWriteStatus waiting = writeBehind.submit(person(2));
+
+        // When / Act
+        assertThrows(ServiceUnavailableException.class, () -> writeBehind.submit(person(3)));
+        release.countDown();
+
+        // Then / Assert
+        assertEquals(State.CREATED, await(waiting).state());
+        assertEquals(1, registry.get("person.write-behind.refused").counter().count());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given database refusing every batch when flush then retry and report failed")
+    void testGivenDatabaseRefusingEveryBatch_whenFlush_thenRetryAndReportFailed() throws Exception {
+
+        // Given / Arrange
+        writeBehind = start(10, 10, Duration.ZERO, 2);
+        given(service.createAll(anyList())).willThrow(new CannotAcquireLockException("Lock wait timeout"));
+
+        // When / Act
+        PersonWriteStatus status = await(writeBehind.submit(person(1)));
+
+        // Then / Assert
+        assertEquals(State.FAILED, status.state());
+        verify(service, times(2)).createAll(anyList());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given one person the database refuses when flush then store the others")
+    void testGivenOnePersonTheDatabaseRefuses_whenFlush_thenStoreTheOthers() throws Exception {
+
+        // Given / Arrange
+        writeBehind = start(100, 4, Duration.ofSeconds(10), 3);
+        Person refused = person(2);
+        given(service.createAll(anyList())).willAnswer(invocation -> {
+            List<Person> people = invocation.getArgument(0);
+            if (people.contains(refused)) {
+                // An email stored by a synchronous create between the lookup and the insert
+                throw new DataIntegrityViolationException("Duplicate entry",
+                        new SQLException("Duplicate entry 'person2@email.com'", "23000"));
+            }
+            PersonBatchResult result = new PersonBatchResult(people.size());
+            for (int i = 0; i < people.size(); i++) {
+                result.created(i, 100L + i);
+            }
+            return result;
+        });
+
+        // When / Act
+        List<PersonWriteStatus> queued = List.of(writeBehind.submit(person(0)), writeBehind.submit(person(1)),
+                writeBehind.submit(refused), writeBehind.submit(person(3)));
+
+        // Then / Assert
+        assertEquals(State.CREATED, await(queued.get(0)).state());
+        assertEquals(State.CREATED, await(queued.get(1)).state());
+        assertEquals(State.REJECTED, await(queued.get(2)).state());
+        assertEquals(State.CREATED, await(queued.get(3)).state());
+        // the batch, its two halves and the refused person alone; none of them retried
+        verify(service, times(5)).createAll(anyList());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given people queued when stop then store them before stopping")
+    void testGivenPeopleQueued_whenStop_thenStoreThemBeforeStopping() {
+
+        // Given / Arrange
+        writeBehind = start(100, 100, Duration.ofSeconds(10), 1);
+        given(service.createAll(anyList())).willAnswer(invocation -> {
+            List<Person> people = invocation.getArgument(0);
+            PersonBatchResult result = new PersonBatchResult(people.size());
+            for (int i = 0; i < people.size(); i++) {
+                result.created(i, i + 1L);
+            }
+            return result;
+        });
+        List<PersonWriteStatus> queued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            queued.add(writeBehind.submit(person(i)));
+        }
+
+        // When / Act
+        writeBehind.stop();
+
+        // Then / Assert
+        for (PersonWriteStatus status : queued) {
+            assertEquals(State.CREATED, writeBehind.status(status.trackingId()).state());
+        }
+        assertThrows(ServiceUnavailableException.class, () -> writeBehind.submit(person(6)));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given incomplete person when submit then throw bad request")
+    void testGivenIncompletePerson_whenSubmit_thenThrowBadRequest() {
+
+        // Given / Arrange
+        writeBehind = start(10, 10, Duration.ZERO, 1);
+        Person person = person(1);
+        person.setEmail(" ");
+
+        // When / Act / Then / Assert
+        assertThrows(BadRequestException.class, () -> writeBehind.submit(person));
+        assertNull(writeBehind.status("unknown"));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given value longer than its column when submit then throw bad request")
+    void testGivenValueLongerThanItsColumn_whenSubmit_thenThrowBadRequest() {
+
+        // Given / Arrange
+        writeBehind = start(10, 10, Duration.ZERO, 1);
+        Person person = person(1);
+        person.setGender("Masculino");
+
+        // When / Act / Then / Assert
+        assertThrows(BadRequestException.class, () -> writeBehind.submit(person));
+    }
+
+    private PersonWriteBehind start(int capacity, int batchSize, Duration maxDelay, int maxAttempts) {
+        PersonWriteBehind started = new PersonWriteBehind(service, registry, capacity, batchSize, maxDelay,
+                Duration.ofMillis(50), maxAttempts, Duration.ofMinutes(1));
+        started.start();
+        return started;
+    }
+
+    private PersonWriteStatus await(PersonWriteStatus queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        PersonWriteStatus status = writeBehind.status(queued.trackingId());
+        while (status.state() == State.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = writeBehind.status(queued.trackingId());
+        }
+        return status;
+    }
+
+    private static Person person(int i) {
+        return new Person("First" + i, "Last" + i, "person" + i + "@email.com", "Rua dos sonhos, " + i, "Male");
+    }
+}
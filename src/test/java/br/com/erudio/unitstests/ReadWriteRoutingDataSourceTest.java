@@ -0,0 +1,161 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.PersonBatchResult;
+import br.com.erudio.model.PersonView;
+import br.com.erudio.services.InMemoryPersonEventSink;
+import br.com.erudio.services.PersonServices;
+
+@Order(3)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=" + ReadWriteRoutingDataSourceTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "person.datasource.replicas[0].url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "person.datasource.read-your-writes=" + ReadWriteRoutingDataSourceTest.READ_YOUR_WRITES_MILLIS + "ms",
+        // The relay ticks far more often than the window is long, and must not keep it open
+        "person.outbox.enabled=true", "person.outbox.sink=memory",
+        "person.outbox.relay.enabled=true", "person.outbox.relay.interval=50ms" })
+class ReadWriteRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final long READ_YOUR_WRITES_MILLIS = 500;
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private PersonServices service;
+
+    @Autowired
+    private InMemoryPersonEventSink sink;
+
+    @BeforeAll
+    static void setupReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replica.update("DELETE FROM person");
+        replica.update("INSERT INTO person (id, first_name, last_name, address, gender, email, version) "
+                + "VALUES (1000, 'Replica', 'Only', 'Rua dos sonhos, 1000', 'Male', 'replica@email.com', 0)");
+    }
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        // Let the read-your-writes window of an earlier test run out
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given row only on replica when findAll then read it from the replica")
+    void testGivenRowOnlyOnReplica_whenFindAll_thenReadItFromTheReplica() {
+
+        // When / Act
+        List<PersonView> people = service.findAll();
+
+        // Then / Assert
+        assertEquals(List.of("replica@email.com"), people.stream().map(PersonView::email).toList());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given row only on replica when findById then read it from the replica")
+    void testGivenRowOnlyOnReplica_whenFindById_thenReadItFromTheReplica() {
+
+        // When / Act
+        PersonView person = service.findById(1000L);
+
+        // Then / Assert
+        assertEquals("replica@email.com", person.email());
+        assertEquals(0L, service.findVersion(1000L));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given create when findAll then read the primary until the read-your-writes window ends")
+    void testGivenCreate_whenFindAll_thenReadThePrimaryUntilTheReadYourWritesWindowEnds() throws InterruptedException {
+
+        // Given / Arrange
+        service.create(new Person("Edielson", "Assis", "edielson@email.com", "Rua dos sonhos, 1000", "Male"));
+
+        // When / Act
+        List<PersonView> rightAfter = service.findAll();
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+        List<PersonView> later = service.findAll();
+
+        // Then / Assert
+        assertEquals(List.of("edielson@email.com"), rightAfter.stream().map(PersonView::email).toList());
+        assertEquals(List.of("replica@email.com"), later.stream().map(PersonView::email).toList());
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM person WHERE email = 'edielson@email.com'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given relay delivering a create when findAll then read the replica once the window ends")
+    void testGivenRelayDeliveringACreate_whenFindAll_thenReadTheReplicaOnceTheWindowEnds() throws InterruptedException {
+
+        // Given / Arrange
+        Person created = service.create(new Person("Rodrigo", "Carvalho", "rodrigo@email.com", "Rua dos doces, 0", "Male"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sink.events().stream().noneMatch(event -> event.personId().equals(created.getId()))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // When / Act
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+        List<PersonView> people = service.findAll();
+
+        // Then / Assert
+        assertTrue(sink.events().stream().anyMatch(event -> event.personId().equals(created.getId())));
+        assertEquals(List.of("replica@email.com"), people.stream().map(PersonView::email).toList());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given write rolled back when findAll then keep reading the replica")
+    void testGivenWriteRolledBack_whenFindAll_thenKeepReadingTheReplica() throws InterruptedException {
+
+        // Given / Arrange
+        Person person = new Person("Leandro", "Costa", "leandro@email.com", "Rua dos sonhos, 1000", "Male");
+        service.create(person);
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+
+        // When / Act
+        assertThrows(RuntimeException.class, () -> service.create(
+                new Person("Leandro", "Costa", "leandro@email.com", "Rua dos sonhos, 1000", "Male")));
+        List<PersonView> people = service.findAll();
+
+        // Then / Assert
+        assertEquals(List.of("replica@email.com"), people.stream().map(PersonView::email).toList());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given transactions that write nothing when findAll then keep reading the replica")
+    void testGivenTransactionsThatWriteNothing_whenFindAll_thenKeepReadingTheReplica() {
+
+        // Given / Arrange
+        Person missing = new Person(999_999L, "Carlos", "Oliveira", "carlos@email.com", "Rua dos sonhos, 1000", "Male");
+
+        // When / Act
+        assertThrows(ResourceNotFoundException.class, () -> service.update(missing));
+        PersonBatchResult result = service.createAll(List.of(new Person()));
+        List<PersonView> people = service.findAll();
+
+        // Then / Assert
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of("replica@email.com"), people.stream().map(PersonView::email).toList());
+    }
+}
@@ -0,0 +1,194 @@
+package br.com.erudio.unitstests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import br.com.erudio.config.ResponseCompressionFilter;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ResponseCompressionFilterTest {
+
+    private static final int MIN_RESPONSE_SIZE = 256;
+
+    private ResponseCompressionFilter filter;
+
+    private byte[] largeBody;
+
+    @BeforeEach
+    void setup() {
+        filter = new ResponseCompressionFilter(MIN_RESPONSE_SIZE,
+                new String[] { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE }, 3);
+        largeBody = "{\"firstName\":\"Edielson\",\"lastName\":\"Assis\"},".repeat(50).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given client accepting zstd and gzip when large JSON then compress with zstd")
+    void testGivenClientAcceptingZstdAndGzip_whenLargeJson_thenCompressWithZstd() throws Exception {
+
+        // When / Act
+        MockHttpServletResponse response = serve("gzip, deflate, br, zstd", MediaType.APPLICATION_JSON_VALUE, largeBody);
+
+        // Then / Assert
+        assertEquals("zstd", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertArrayEquals(largeBody, readAll(new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given client ranking gzip higher when large CBOR then compress with gzip")
+    void testGivenClientRankingGzipHigher_whenLargeCbor_thenCompressWithGzip() throws Exception {
+
+        // When / Act
+        MockHttpServletResponse response = serve("zstd;q=0.5, gzip", MediaType.APPLICATION_CBOR_VALUE, largeBody);
+
+        // Then / Assert
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(largeBody, readAll(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given body under threshold when serve then send it uncompressed")
+    void testGivenBodyUnderThreshold_whenServe_thenSendItUncompressed() throws Exception {
+
+        // Given / Arrange
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        // When / Act
+        MockHttpServletResponse response = serve("zstd, gzip", MediaType.APPLICATION_JSON_VALUE, body);
+
+        // Then / Assert
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given content type not listed when serve then send it uncompressed")
+    void testGivenContentTypeNotListed_whenServe_thenSendItUncompressed() throws Exception {
+
+        // When / Act
+        MockHttpServletResponse response = serve("zstd, gzip", MediaType.IMAGE_PNG_VALUE, largeBody);
+
+        // Then / Assert
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(largeBody, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given client refusing both codings when serve then send it uncompressed")
+    void testGivenClientRefusingBothCodings_whenServe_thenSendItUncompressed() throws Exception {
+
+        // When / Act
+        MockHttpServletResponse response = serve("br, *;q=0", MediaType.APPLICATION_JSON_VALUE, largeBody);
+
+        // Then / Assert
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(largeBody, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given strong ETag when compress then append the coding to it")
+    void testGivenStrongETag_whenCompress_thenAppendTheCodingToIt() throws Exception {
+
+        // Given / Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/person/1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse compressed = new MockHttpServletResponse();
+        MockHttpServletResponse small = new MockHttpServletResponse();
+
+        // When / Act
+        filter.doFilter(request, compressed, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"4\"");
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(largeBody);
+        });
+        filter.doFilter(request, small, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"4\"");
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write('{');
+        });
+
+        // Then / Assert
+        assertEquals("\"4-gzip\"", compressed.getHeader(HttpHeaders.ETAG));
+        assertEquals("\"4\"", small.getHeader(HttpHeaders.ETAG));
+        assertEquals("\"4\"", ResponseCompressionFilter.stripCoding("\"4-gzip\""));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given coded ETag in If-None-Match when not modified then answer with the coded ETag")
+    void testGivenCodedETagInIfNoneMatch_whenNotModified_thenAnswerWithTheCodedETag() throws Exception {
+
+        // Given / Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/person/1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "zstd");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"4-zstd\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When / Act
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"4\"");
+        });
+
+        // Then / Assert
+        assertEquals("\"4-zstd\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("JUnit test for Given chain failing mid-body when serve then still close the encoder")
+    void testGivenChainFailingMidBody_whenServe_thenStillCloseTheEncoder() throws Exception {
+
+        // Given / Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/person");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When / Act
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(largeBody);
+            throw new IllegalStateException("Connection lost");
+        }));
+
+        // Then / Assert
+        assertArrayEquals(largeBody, readAll(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    private MockHttpServletResponse serve(String acceptEncoding, String contentType, byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/person");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType(contentType);
+            // Written in pieces, the way a converter streams its output
+            for (int offset = 0; offset < body.length; offset += 100) {
+                res.getOutputStream().write(body, offset, Math.min(100, body.length - offset));
+            }
+        });
+        return response;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}